@@ -0,0 +1,77 @@
+package com.fl4nk3r.luminalib.config;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fl4nk3r.luminalib.entity.Book;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Moves the book ID generator past the IDs already in the books table.
+ * Book IDs used to come from an auto-increment column; the pooled table
+ * generator that replaced it starts from scratch, so on an existing database
+ * it would hand out IDs that are already taken. This runs once while the
+ * context starts, after the Flyway migrations have created id_generators
+ * and before the web server accepts requests.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Component
+@RequiredArgsConstructor
+public class BookIdGeneratorInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Injected only so the migrations have run before alignIdGenerator does:
+    // the EntityManagerFactory is created after Flyway
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Ensures the next block of generated IDs starts above the largest
+     * existing book ID
+     */
+    @PostConstruct
+    public void alignIdGenerator() {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from books", Long.class);
+        if (maxId == null) {
+            return;
+        }
+
+        // Whichever end of the block the pooled optimizer treats as the stored
+        // value, this keeps the whole block above maxId
+        long nextValue = maxId + Book.ID_ALLOCATION_SIZE + 1;
+        if (raiseNextValue(nextValue) == 0 && !generatorExists()) {
+            try {
+                jdbcTemplate.update("insert into id_generators (name, next_val) values (?, ?)", Book.ID_GENERATOR,
+                        nextValue);
+            } catch (DuplicateKeyException e) {
+                // Another instance created the row in the meantime
+                raiseNextValue(nextValue);
+            }
+        }
+    }
+
+    /**
+     * Raises the stored value in a single statement, so that it never moves
+     * back below a block another instance allocated since maxId was read
+     *
+     * @return Number of rows updated, 0 if the value was already high enough
+     *         or the row does not exist
+     */
+    private int raiseNextValue(long nextValue) {
+        return jdbcTemplate.update(
+                "update id_generators set next_val = ? where name = ? and (next_val is null or next_val < ?)",
+                nextValue, Book.ID_GENERATOR, nextValue);
+    }
+
+    private boolean generatorExists() {
+        return jdbcTemplate.queryForObject("select count(*) from id_generators where name = ?", Integer.class,
+                Book.ID_GENERATOR) > 0;
+    }
+}
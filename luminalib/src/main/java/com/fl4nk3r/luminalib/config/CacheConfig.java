@@ -0,0 +1,21 @@
+package com.fl4nk3r.luminalib.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables Spring's cache abstraction.
+ * The caches themselves are Caffeine caches declared in application.properties
+ * (spring.cache.cache-names / spring.cache.caffeine.spec), which bounds them by
+ * size and TTL and records the hit, miss and eviction statistics published
+ * under /actuator/metrics/cache.*.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Read-through cache of books keyed by ID
+     */
+    public static final String BOOKS_CACHE = "books";
+}
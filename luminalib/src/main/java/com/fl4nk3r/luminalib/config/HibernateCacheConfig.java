@@ -0,0 +1,88 @@
+package com.fl4nk3r.luminalib.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fl4nk3r.luminalib.entity.Book;
+import com.fl4nk3r.luminalib.entity.User;
+import com.fl4nk3r.luminalib.repository.BookRepository;
+import com.fl4nk3r.luminalib.repository.UserRepository;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Regions of Hibernate's second-level and query cache.
+ * Hibernate reaches them through JCache; each region is a local Caffeine
+ * cache created here, bounded by the sizes in application.properties.
+ * Entity and query regions also expire after luminalib.hibernate-cache.ttl,
+ * which bounds how long one instance can serve rows changed by another.
+ * The update-timestamps region, which Hibernate uses to tell whether a
+ * cached query result is stale, is never bounded or expired.
+ * Hit, miss and put counts per region are published with the other Hibernate
+ * statistics under /actuator/metrics/hibernate.*.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    /**
+     * Region Hibernate records the last write to each table in
+     */
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    /**
+     * Region of cached queries that do not name their own
+     */
+    static final String DEFAULT_QUERY_REGION = "default-query-results-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${luminalib.hibernate-cache.book-size:10000}") long bookSize,
+            @Value("${luminalib.hibernate-cache.user-size:10000}") long userSize,
+            @Value("${luminalib.hibernate-cache.query-size:10000}") long querySize,
+            @Value("${luminalib.hibernate-cache.ttl:10m}") Duration ttl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("luminalib:hibernate:" + UUID.randomUUID()),
+                        HibernateCacheConfig.class.getClassLoader());
+        createRegion(cacheManager, Book.CACHE_REGION, bookSize, ttl);
+        createRegion(cacheManager, User.CACHE_REGION, userSize, ttl);
+        createRegion(cacheManager, BookRepository.QUERY_CACHE_REGION, querySize, ttl);
+        createRegion(cacheManager, UserRepository.QUERY_CACHE_REGION, querySize, ttl);
+        createRegion(cacheManager, DEFAULT_QUERY_REGION, querySize, ttl);
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, 0, Duration.ZERO);
+        return cacheManager;
+    }
+
+    /**
+     * Hands the regions to Hibernate's JCache region factory
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * @param maximumSize Maximum number of entries, 0 for unbounded
+     * @param ttl         Time after which an entry expires, zero for never
+     */
+    private static void createRegion(CacheManager cacheManager, String name, long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maximumSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        }
+        if (!ttl.isZero()) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -0,0 +1,83 @@
+package com.fl4nk3r.luminalib.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read/write splitting, enabled by setting luminalib.datasource.replica.url.
+ * Transactions marked {@code @Transactional(readOnly = true)} take their
+ * connection from the replica pool, everything else from the primary pool
+ * configured by spring.datasource.*. The proxy hands out a connection only
+ * when the first statement runs, by which time the transaction's read-only
+ * flag is known. Each pool publishes its own hikaricp.* metrics, tagged with
+ * its pool name.
+ * With an empty replica URL this configuration is skipped and the single
+ * spring.datasource pool serves everything.
+ */
+@Configuration
+@ConditionalOnExpression("!'${luminalib.datasource.replica.url:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("luminalib.datasource.replica.hikari")
+    public HikariDataSource replicaPoolDataSource(DataSourceProperties properties,
+            @Value("${luminalib.datasource.replica.url}") String url,
+            @Value("${luminalib.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${luminalib.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(HikariDataSource replicaPoolDataSource,
+            HikariDataSource primaryDataSource,
+            @Value("${luminalib.datasource.replica.lag-query:}") String lagQuery,
+            @Value("${luminalib.datasource.replica.max-lag:5s}") Duration maxLag,
+            @Value("${luminalib.datasource.replica.check-interval:5s}") Duration checkInterval,
+            MeterRegistry meterRegistry) {
+        return new ReplicaDataSource(replicaPoolDataSource, primaryDataSource, lagQuery, maxLag, checkInterval,
+                meterRegistry);
+    }
+
+    /**
+     * The data source everything else (JPA, JdbcTemplate) uses
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
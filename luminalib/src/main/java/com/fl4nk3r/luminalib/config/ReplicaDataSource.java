@@ -0,0 +1,153 @@
+package com.fl4nk3r.luminalib.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Connections for read-only transactions: from the replica pool while the
+ * replica is reachable and not lagging, from the primary pool otherwise.
+ * The replica is probed every check interval; when a lag query is
+ * configured it must return the replica's delay in seconds, and a delay
+ * above the maximum sends reads to the primary until a later probe sees the
+ * replica catch up. A replica connection that cannot be obtained also sends
+ * reads to the primary straight away.
+ * Reads are counted in {@code luminalib.datasource.reads}, tagged with the
+ * pool that served them, and the last measured lag is published as
+ * {@code luminalib.datasource.replica.lag}.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSource.class);
+
+    private final DataSource replica;
+    private final DataSource primary;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final ScheduledExecutorService probe;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+    private volatile boolean usable = true;
+    private volatile double lagSeconds;
+
+    /**
+     * @param replica       Pool of the replica
+     * @param primary       Pool of the primary, used when the replica is not
+     * @param lagQuery      Query returning the replica's delay in seconds, or
+     *                      null to only check that the replica answers
+     * @param maxLag        Largest delay at which reads still go to the replica
+     * @param checkInterval Time between two probes of the replica
+     * @param meterRegistry Registry of the read counters and lag gauge
+     */
+    public ReplicaDataSource(DataSource replica, DataSource primary, String lagQuery, Duration maxLag,
+            Duration checkInterval, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.primary = primary;
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.maxLagSeconds = maxLag.toSeconds();
+        this.replicaReads = reads(meterRegistry, "replica");
+        this.primaryReads = reads(meterRegistry, "primary");
+        Gauge.builder("luminalib.datasource.replica.lag", this, source -> source.lagSeconds)
+                .description("Delay of the read replica at the last probe, in seconds")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.probe = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "replica-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.probe.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (usable) {
+            try {
+                Connection connection = replica.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                markUnusable("unreachable: " + e.getMessage());
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Connections are taken from the configured pools");
+    }
+
+    /**
+     * @return true if read-only transactions currently go to the replica
+     */
+    public boolean isUsable() {
+        return usable;
+    }
+
+    @Override
+    public void destroy() {
+        probe.shutdownNow();
+    }
+
+    /**
+     * Probe the replica and route reads accordingly. Runs every check
+     * interval; can also be called to re-check at once.
+     */
+    public void check() {
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null) {
+                lagSeconds = 0;
+            } else {
+                try (Statement statement = connection.createStatement();
+                        ResultSet result = statement.executeQuery(lagQuery)) {
+                    // No row means replication is not running
+                    lagSeconds = result.next() ? result.getDouble(1) : Double.POSITIVE_INFINITY;
+                    if (result.wasNull()) {
+                        lagSeconds = Double.POSITIVE_INFINITY;
+                    }
+                }
+            }
+            if (lagSeconds > maxLagSeconds) {
+                markUnusable("lagging " + lagSeconds + "s behind");
+            } else if (!usable) {
+                usable = true;
+                log.info("Read replica is back, routing read-only transactions to it");
+            }
+        } catch (SQLException | RuntimeException e) {
+            markUnusable("unreachable: " + e.getMessage());
+        }
+    }
+
+    private void markUnusable(String reason) {
+        if (usable) {
+            usable = false;
+            log.warn("Read replica {}, routing read-only transactions to the primary", reason);
+        }
+    }
+
+    private static Counter reads(MeterRegistry meterRegistry, String pool) {
+        return Counter.builder("luminalib.datasource.reads")
+                .description("Connections handed to read-only transactions")
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+}
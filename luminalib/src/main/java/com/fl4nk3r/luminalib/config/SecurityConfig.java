@@ -1,5 +1,8 @@
 package com.fl4nk3r.luminalib.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -11,6 +14,7 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -21,7 +25,9 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.fl4nk3r.luminalib.security.AuthTokenFilter;
+import com.fl4nk3r.luminalib.security.BoundedPasswordEncoder;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
 @Configuration
@@ -32,6 +38,20 @@ public class SecurityConfig {
 
     private final AuthTokenFilter authTokenFilter;
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${luminalib.auth.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${luminalib.auth.hashing-threads:0}")
+    private int hashingThreads;
+
+    @Value("${luminalib.auth.hashing-queue:100}")
+    private int hashingQueue;
+
+    @Value("${luminalib.auth.retry-after:1s}")
+    private Duration retryAfter;
 
     /**
      * Configures the security filter chain
@@ -49,6 +69,10 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/books/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/books/search/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/books/genre/**").permitAll()
+                        // Actuator: health is public, everything else (metrics, caches) is admin only
+                        .requestMatchers("/actuator/health", "/actuator/health/liveness",
+                                "/actuator/health/readiness").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // All other endpoints require authentication
                         .anyRequest().authenticated())
                 .sessionManagement(session -> session
@@ -61,21 +85,30 @@ public class SecurityConfig {
 
     /**
      * Password encoder bean
-     * Uses BCrypt hashing algorithm
+     * Uses BCrypt hashing algorithm on a bounded pool of its own, one thread for
+     * every two CPUs unless configured otherwise, so that hashing leaves the
+     * other half to the rest of the requests; logins and registrations beyond
+     * the pool and its queue are turned away with 503 instead of waiting
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int threads = hashingThreads > 0 ? hashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), threads, hashingQueue,
+                Math.max(1, retryAfter.toSeconds()), meterRegistry);
     }
 
     /**
      * Authentication provider
-     * Configures how to retrieve user details and encode passwords
+     * Configures how to retrieve user details and encode passwords.
+     * A password hashed with a lower BCrypt cost than the configured one is
+     * rehashed on successful login.
      */
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -0,0 +1,68 @@
+package com.fl4nk3r.luminalib.config;
+
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between
+ * {@link #begin()} and {@link #end()}; {@link SqlStatementMetricsFilter} does
+ * this around every request.
+ * Registered with Hibernate as its statement inspector. A statement inspector
+ * configured through spring.jpa.properties is still called, after counting.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+
+    private final ThreadLocal<int[]> count = new ThreadLocal<>();
+    private StatementInspector delegate;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        Object configured = hibernateProperties.get(AvailableSettings.STATEMENT_INSPECTOR);
+        if (configured instanceof StatementInspector inspector) {
+            delegate = inspector;
+        } else if (configured instanceof Class<?> type) {
+            delegate = (StatementInspector) BeanUtils.instantiateClass(type);
+        } else if (configured instanceof String name) {
+            delegate = (StatementInspector) BeanUtils
+                    .instantiateClass(ClassUtils.resolveClassName(name, getClass().getClassLoader()));
+        }
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] statements = count.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+        return delegate == null ? sql : delegate.inspect(sql);
+    }
+
+    /**
+     * Start counting the statements of the current thread
+     */
+    public void begin() {
+        count.set(new int[1]);
+    }
+
+    /**
+     * Stop counting on the current thread
+     * @return Number of statements prepared since {@link #begin()}
+     */
+    public int end() {
+        int[] statements = count.get();
+        count.remove();
+        return statements == null ? 0 : statements[0];
+    }
+}
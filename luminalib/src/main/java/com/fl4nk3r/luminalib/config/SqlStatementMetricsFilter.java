@@ -0,0 +1,71 @@
+package com.fl4nk3r.luminalib.config;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Records how many SQL statements each request runs, per endpoint, in the
+ * {@code luminalib.http.sql.statements} distribution (tagged like
+ * {@code http.server.requests} with method and URI template), and logs the
+ * requests that run more than luminalib.metrics.sql-statements-warn, which is
+ * how N+1 queries and repeated lookups show up.
+ * Runs outside the security filters, so statements issued while
+ * authenticating are counted too. Statements run on other threads, such as
+ * the writer of a streamed response, are not.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@RequiredArgsConstructor
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementMetricsFilter.class);
+
+    private final SqlStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${luminalib.metrics.sql-statements-warn:20}")
+    private int warnThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        counter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = counter.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            DistributionSummary.builder("luminalib.http.sql.statements")
+                    .description("SQL statements run by one request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+            if (statements > warnThreshold) {
+                log.warn("{} {} ran {} SQL statements", request.getMethod(), uri, statements);
+            }
+        }
+    }
+}
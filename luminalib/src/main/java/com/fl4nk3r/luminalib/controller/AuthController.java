@@ -3,12 +3,15 @@ package com.fl4nk3r.luminalib.controller;
 import com.fl4nk3r.luminalib.dto.request.LoginRequest;
 import com.fl4nk3r.luminalib.dto.request.RegisterRequest;
 import com.fl4nk3r.luminalib.dto.response.AuthResponse;
+import com.fl4nk3r.luminalib.exception.UnauthorizedException;
 import com.fl4nk3r.luminalib.service.AuthService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -22,11 +25,13 @@ public class AuthController {
      * Register a new user
      * POST /api/auth/register
      * @param request Registration details (email, password, firstName, lastName)
+     * @param httpRequest Servlet request, for the client address
      * @return JWT token wrapped in AuthResponse
      */
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
-        AuthResponse response = authService.register(request);
+    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request,
+            HttpServletRequest httpRequest) {
+        AuthResponse response = authService.register(request, httpRequest.getRemoteAddr());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -34,11 +39,29 @@ public class AuthController {
      * Login existing user
      * POST /api/auth/login
      * @param request Login credentials (email, password)
+     * @param httpRequest Servlet request, for the client address
      * @return JWT token wrapped in AuthResponse
      */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        AuthResponse response = authService.login(request);
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+        AuthResponse response = authService.login(request, httpRequest.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
-}
+
+    /**
+     * Log out: the bearer token is rejected from now on, until it expires
+     * POST /api/auth/logout
+     * @param authorization Authorization header carrying the token to revoke
+     * @return No content
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            throw UnauthorizedException.stackless("Bearer token required");
+        }
+        authService.logout(authorization.substring(7));
+        return ResponseEntity.noContent().build();
+    }
+}
\ No newline at end of file
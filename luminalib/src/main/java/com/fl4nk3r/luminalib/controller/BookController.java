@@ -1,33 +1,143 @@
 package com.fl4nk3r.luminalib.controller;
 
+import com.fl4nk3r.luminalib.dto.response.BookImportResponse;
+import com.fl4nk3r.luminalib.dto.response.BookSummaryResponse;
+import com.fl4nk3r.luminalib.dto.response.CursorPageResponse;
+import com.fl4nk3r.luminalib.dto.response.GenreCountResponse;
+import com.fl4nk3r.luminalib.dto.response.SparseFieldSet;
+import com.fl4nk3r.luminalib.dto.response.SuggestionResponse;
 import com.fl4nk3r.luminalib.entity.Book;
+import com.fl4nk3r.luminalib.exception.BadRequestException;
+import com.fl4nk3r.luminalib.service.BookExportService;
+import com.fl4nk3r.luminalib.service.BookImportService;
 import com.fl4nk3r.luminalib.service.BookService;
+import com.fl4nk3r.luminalib.service.CatalogVersionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
 
 import jakarta.validation.Valid;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
+/**
+ * Book endpoints.
+ * Read endpoints return strong ETags: list responses are tagged with the
+ * catalog version, single books with their own version. A matching
+ * If-None-Match is answered with 304 Not Modified before any data is loaded.
+ * List endpoints return book summaries and accept a {@code fields} parameter
+ * (e.g. {@code ?fields=id,title}) to return only some of their fields.
+ */
 @RestController
 @RequestMapping("/api/books")
 @RequiredArgsConstructor
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookExportService bookExportService;
+    private final CatalogVersionService catalogVersion;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Get all books
-     * GET /api/books
+     * Get books one page at a time, ordered by id
+     * GET /api/books?after=...&size=...&fields=...
      * 
-     * @return List of all books
+     * @param after  Cursor returned as nextCursor by the previous page
+     * @param size   Page size (defaults to luminalib.books.page-size)
+     * @param fields Comma separated book fields to return, all by default
+     * @return Page of books and the cursor for the next page
      */
     @GetMapping
-    public ResponseEntity<List<Book>> getAllBooks() {
-        List<Book> books = bookService.getAllBooks();
-        return ResponseEntity.ok(books);
+    public ResponseEntity<CursorPageResponse<Object>> getAllBooks(@RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size, @RequestParam(required = false) String fields,
+            WebRequest request) {
+        SparseFieldSet.Selection<BookSummaryResponse> selection = BookSummaryResponse.FIELDS.select(fields);
+        String etag = catalogVersion.catalogTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        CursorPageResponse<BookSummaryResponse> page = bookService.getBooksPage(after, size);
+        return withETag(etag, selection.apply(page));
+    }
+
+    /**
+     * Stream the whole catalog as a JSON array
+     * GET /api/books/stream
+     * 
+     * @return JSON array of all books, written as rows are read
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllBooks(WebRequest request) {
+        String etag = catalogVersion.catalogTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                bookService.streamAllBooks(generator::writePOJO);
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Export the catalog as NDJSON or CSV (Admin only)
+     * GET /api/books/export?format=ndjson|csv&after=...
+     * Compressed with gzip on the fly when the client sends
+     * Accept-Encoding: gzip.
+     * 
+     * @param format         ndjson (default) or csv
+     * @param after          Id of the last book already received, to resume an
+     *                       interrupted export
+     * @param acceptEncoding Accept-Encoding request header
+     * @return Every book after the cursor in id order, written as rows are read
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportBooks(@RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        BookExportService.Format exportFormat = BookExportService.Format.of(format);
+        if (after != null && after < 0) {
+            throw BadRequestException.stackless("Cursor cannot be negative");
+        }
+        long cursor = after == null ? 0L : after;
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = gzip ? new GZIPOutputStream(outputStream, 64 * 1024) : outputStream;
+            bookExportService.export(out, exportFormat, cursor);
+        };
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("books." + exportFormat.getExtension())
+                .build();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     /**
@@ -38,9 +148,13 @@ public class BookController {
      * @return Book entity
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Book> getBookById(@PathVariable Long id) {
+    public ResponseEntity<Book> getBookById(@PathVariable Long id, WebRequest request) {
+        String etag = catalogVersion.bookTag(id);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         Book book = bookService.getBookById(id);
-        return ResponseEntity.ok(book);
+        return withETag(CatalogVersionService.tagOf(book), book);
     }
 
     /**
@@ -57,6 +171,27 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdBook);
     }
 
+    /**
+     * Import many books at once (Admin only)
+     * POST /api/books/batch
+     * 
+     * @param body        JSON array of books, or one JSON book per line when
+     *                    sent as application/x-ndjson
+     * @param contentType Content type of the body
+     * @return Number of rows received and imported, with an error per rejected
+     *         row
+     * @throws IOException if the body cannot be read
+     */
+    @PostMapping(value = "/batch", consumes = { MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BookImportResponse> importBooks(InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType) throws IOException {
+        boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType);
+        BookImportResponse result = bookImportService.importBooks(body, ndjson);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Update an existing book (Admin only)
      * PUT /api/books/{id}
@@ -88,27 +223,103 @@ public class BookController {
 
     /**
      * Search books by title or author
-     * GET /api/books/search?keyword=...
+     * GET /api/books/search?keyword=...&fields=...
      * 
      * @param keyword Search keyword
+     * @param fields  Comma separated book fields to return, all by default
      * @return List of matching books
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Book>> searchBooks(@RequestParam String keyword) {
-        List<Book> books = bookService.searchBooks(keyword);
-        return ResponseEntity.ok(books);
+    public ResponseEntity<List<Object>> searchBooks(@RequestParam String keyword,
+            @RequestParam(required = false) String fields, WebRequest request) {
+        SparseFieldSet.Selection<BookSummaryResponse> selection = BookSummaryResponse.FIELDS.select(fields);
+        String etag = catalogVersion.catalogTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<BookSummaryResponse> books = bookService.searchBooks(keyword);
+        return withETag(etag, selection.apply(books));
+    }
+
+    /**
+     * Suggest title and author completions while the user types
+     * GET /api/books/suggest?prefix=...&limit=...
+     * 
+     * @param prefix Text typed so far
+     * @param limit  Maximum number of suggestions (at most 10)
+     * @return Suggestions, most books first
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionResponse>> suggest(@RequestParam String prefix,
+            @RequestParam(required = false) Integer limit, WebRequest request) {
+        String etag = catalogVersion.catalogTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<SuggestionResponse> suggestions = bookService.suggest(prefix, limit);
+        return withETag(etag, suggestions);
     }
 
     /**
-     * Get books by genre
-     * GET /api/books/genre/{genre}
+     * Get books by genre, one page at a time
+     * GET /api/books/genre/{genre}?after=...&size=...&fields=...
      * 
-     * @param genre Genre name
-     * @return List of books in that genre
+     * @param genre  Genre name (any spelling of the genre)
+     * @param after  Cursor returned as nextCursor by the previous page
+     * @param size   Page size (defaults to luminalib.books.page-size)
+     * @param fields Comma separated book fields to return, all by default
+     * @return Page of books in that genre
      */
     @GetMapping("/genre/{genre}")
-    public ResponseEntity<List<Book>> getBooksByGenre(@PathVariable String genre) {
-        List<Book> books = bookService.getBooksByGenre(genre);
-        return ResponseEntity.ok(books);
+    public ResponseEntity<CursorPageResponse<Object>> getBooksByGenre(@PathVariable String genre,
+            @RequestParam(required = false) Long after, @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String fields, WebRequest request) {
+        SparseFieldSet.Selection<BookSummaryResponse> selection = BookSummaryResponse.FIELDS.select(fields);
+        String etag = catalogVersion.catalogTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        CursorPageResponse<BookSummaryResponse> page = bookService.getBooksByGenre(genre, after, size);
+        return withETag(etag, selection.apply(page));
+    }
+
+    /**
+     * Get the number of books in each genre
+     * GET /api/books/genres
+     * 
+     * @return Genre facets, largest genre first
+     */
+    @GetMapping("/genres")
+    public ResponseEntity<List<GenreCountResponse>> getGenreCounts(WebRequest request) {
+        String etag = catalogVersion.catalogTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<GenreCountResponse> genres = bookService.getGenreCounts();
+        return withETag(etag, genres);
+    }
+
+    /**
+     * @return true if the Accept-Encoding header lists gzip without q=0
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds a 200 response that clients must revalidate with If-None-Match
+     * before reusing
+     */
+    private static <T> ResponseEntity<T> withETag(String etag, T body) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(body);
     }
 }
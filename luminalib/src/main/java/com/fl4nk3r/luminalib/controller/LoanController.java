@@ -0,0 +1,100 @@
+package com.fl4nk3r.luminalib.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fl4nk3r.luminalib.dto.request.LoanRequest;
+import com.fl4nk3r.luminalib.dto.response.CursorPageResponse;
+import com.fl4nk3r.luminalib.dto.response.LoanResponse;
+import com.fl4nk3r.luminalib.entity.Role;
+import com.fl4nk3r.luminalib.service.LoanService;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Loan endpoints.
+ * Any authenticated user borrows and returns copies for themselves; admins
+ * may also return other users' loans and list the overdue ones.
+ */
+@RestController
+@RequestMapping("/api/loans")
+@RequiredArgsConstructor
+public class LoanController {
+
+    private final LoanService loanService;
+
+    /**
+     * Borrow one copy of a book
+     * POST /api/loans
+     *
+     * @param userDetails Currently authenticated user
+     * @param request     ID of the book to borrow
+     * @return Created loan, or 400 if no copy is available
+     */
+    @PostMapping
+    public ResponseEntity<LoanResponse> borrow(@AuthenticationPrincipal UserDetails userDetails,
+            @Valid @RequestBody LoanRequest request) {
+        LoanResponse loan = loanService.borrow(userDetails.getUsername(), request.getBookId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(loan);
+    }
+
+    /**
+     * Return the copy held by a loan
+     * POST /api/loans/{id}/return
+     *
+     * @param userDetails Currently authenticated user
+     * @param id          Loan ID
+     * @return Closed loan, or 400 if it was already returned
+     */
+    @PostMapping("/{id}/return")
+    public ResponseEntity<LoanResponse> returnLoan(@AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long id) {
+        boolean admin = userDetails.getAuthorities().stream()
+                .anyMatch(authority -> Role.ROLE_ADMIN.name().equals(authority.getAuthority()));
+        return ResponseEntity.ok(loanService.returnLoan(id, userDetails.getUsername(), admin));
+    }
+
+    /**
+     * Get the current user's loans one page at a time, newest first
+     * GET /api/loans/me?after=...&size=...
+     *
+     * @param userDetails Currently authenticated user
+     * @param after       Cursor returned as nextCursor by the previous page
+     * @param size        Page size, the configured default if omitted
+     * @return Page of loans and the cursor for the next page
+     */
+    @GetMapping("/me")
+    public ResponseEntity<CursorPageResponse<LoanResponse>> getMyLoans(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(loanService.getLoans(userDetails.getUsername(), after, size));
+    }
+
+    /**
+     * Get the loans past their due date one page at a time (Admin only)
+     * GET /api/loans/overdue?after=...&size=...
+     *
+     * @param after Cursor returned as nextCursor by the previous page
+     * @param size  Page size, the configured default if omitted
+     * @return Page of overdue loans and the cursor for the next page
+     */
+    @GetMapping("/overdue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPageResponse<LoanResponse>> getOverdueLoans(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(loanService.getOverdueLoans(after, size));
+    }
+}
@@ -9,12 +9,15 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.fl4nk3r.luminalib.entity.User;
-import com.fl4nk3r.luminalib.exception.ResourceNotFoundException;
-import com.fl4nk3r.luminalib.repository.UserRepository;
+import com.fl4nk3r.luminalib.dto.response.SparseFieldSet;
+import com.fl4nk3r.luminalib.dto.response.UserResponse;
+import com.fl4nk3r.luminalib.service.TokenVersionService;
+import com.fl4nk3r.luminalib.service.UserService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,7 +26,8 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class UserController {
 
-    private final UserRepository userRepository;
+    private final UserService userService;
+    private final TokenVersionService tokenVersions;
 
     /**
      * Get current user profile
@@ -33,24 +37,22 @@ public class UserController {
      * @return Current user details
      */
     @GetMapping("/me")
-    public ResponseEntity<User> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails) {
-        User user = userRepository.findByEmail(userDetails.getUsername())
-                .orElseThrow(
-                        () -> new ResourceNotFoundException("User not found with email: " + userDetails.getUsername()));
-        return ResponseEntity.ok(user);
+    public ResponseEntity<UserResponse> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails) {
+        return ResponseEntity.ok(userService.getProfile(userDetails.getUsername()));
     }
 
     /**
      * Get all users (Admin only)
-     * GET /api/users
+     * GET /api/users?fields=...
      * 
+     * @param fields Comma separated user fields to return, all by default
      * @return List of all users
      */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<Object>> getAllUsers(@RequestParam(required = false) String fields) {
+        SparseFieldSet.Selection<UserResponse> selection = UserResponse.FIELDS.select(fields);
+        return ResponseEntity.ok(selection.apply(userService.getAllProfiles()));
     }
 
     /**
@@ -62,9 +64,21 @@ public class UserController {
      */
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        return ResponseEntity.ok(user);
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
+        return ResponseEntity.ok(userService.getProfile(id));
+    }
+
+    /**
+     * Revoke every token issued to a user so far (Admin only)
+     * POST /api/users/{id}/revoke-tokens
+     * 
+     * @param id User ID
+     * @return No content
+     */
+    @PostMapping("/{id}/revoke-tokens")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long id) {
+        tokenVersions.revokeTokens(userService.getProfile(id).email());
+        return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,18 @@
+package com.fl4nk3r.luminalib.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotNull;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanRequest {
+
+    @NotNull(message = "Book ID is required")
+    private Long bookId;
+}
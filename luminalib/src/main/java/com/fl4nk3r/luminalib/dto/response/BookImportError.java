@@ -0,0 +1,24 @@
+package com.fl4nk3r.luminalib.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for a row rejected by a bulk book import.
+ * Rows are numbered from 1 in the order they appear in the request body.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportError {
+    private int row;
+    private String isbn;
+    private String message;
+}
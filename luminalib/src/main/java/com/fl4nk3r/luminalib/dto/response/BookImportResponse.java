@@ -0,0 +1,26 @@
+package com.fl4nk3r.luminalib.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object summarizing a bulk book import: how many rows were
+ * read, how many were saved, and why each of the others was rejected.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportResponse {
+    private int received;
+    private int imported;
+    private List<BookImportError> errors;
+}
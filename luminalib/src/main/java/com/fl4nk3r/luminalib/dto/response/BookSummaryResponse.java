@@ -0,0 +1,34 @@
+package com.fl4nk3r.luminalib.dto.response;
+
+/**
+ * Read projection of a book for list responses.
+ * Repository queries select these columns straight into the record, so list
+ * endpoints never load managed entities, and {@link #FIELDS} writes any
+ * subset of them for a {@code ?fields=} request.
+ *
+ * @param id              Book ID
+ * @param title           Title
+ * @param author          Author
+ * @param isbn            ISBN number
+ * @param publicationYear Year of publication
+ * @param genre           Genre as entered
+ * @param totalCopies     Copies owned by the library
+ * @param availableCopies Copies currently on the shelf
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public record BookSummaryResponse(Long id, String title, String author, String isbn, int publicationYear,
+        String genre, int totalCopies, int availableCopies) {
+
+    public static final SparseFieldSet<BookSummaryResponse> FIELDS = SparseFieldSet.<BookSummaryResponse>builder()
+            .number("id", BookSummaryResponse::id)
+            .string("title", BookSummaryResponse::title)
+            .string("author", BookSummaryResponse::author)
+            .string("isbn", BookSummaryResponse::isbn)
+            .number("publicationYear", BookSummaryResponse::publicationYear)
+            .string("genre", BookSummaryResponse::genre)
+            .number("totalCopies", BookSummaryResponse::totalCopies)
+            .number("availableCopies", BookSummaryResponse::availableCopies)
+            .build();
+}
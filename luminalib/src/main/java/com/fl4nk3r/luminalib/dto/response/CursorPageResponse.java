@@ -0,0 +1,29 @@
+package com.fl4nk3r.luminalib.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for keyset (cursor) paginated responses.
+ * The client passes {@code nextCursor} back as the {@code after} parameter to
+ * fetch the following page; a null {@code nextCursor} means there are no more
+ * results.
+ *
+ * @param <T> Type of the page content
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int size;
+    private Long nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.fl4nk3r.luminalib.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for a genre facet: the genre's display name, its
+ * canonical key (usable in GET /api/books/genre/{genre}) and the number of
+ * books filed under it.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenreCountResponse {
+    private String genre;
+    private String key;
+    private Long count;
+}
@@ -0,0 +1,34 @@
+package com.fl4nk3r.luminalib.dto.response;
+
+import java.time.LocalDateTime;
+
+import com.fl4nk3r.luminalib.entity.Loan;
+
+/**
+ * Read projection of a loan.
+ * Repository queries select the loan's columns straight into the record; the
+ * book and the user are referred to by ID only, so listing loans never joins
+ * or loads them.
+ *
+ * @param id         Loan ID
+ * @param bookId     ID of the borrowed book
+ * @param userId     ID of the borrower
+ * @param borrowedAt When the copy was borrowed
+ * @param dueAt      When the copy is due back
+ * @param returnedAt When the copy was returned, null while the loan is open
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public record LoanResponse(Long id, Long bookId, Long userId, LocalDateTime borrowedAt, LocalDateTime dueAt,
+        LocalDateTime returnedAt) {
+
+    /**
+     * @param loan Loan entity
+     * @return Projection of the loan
+     */
+    public static LoanResponse of(Loan loan) {
+        return new LoanResponse(loan.getId(), loan.getBookId(), loan.getUserId(), loan.getBorrowedAt(),
+                loan.getDueAt(), loan.getReturnedAt());
+    }
+}
@@ -0,0 +1,184 @@
+package com.fl4nk3r.luminalib.dto.response;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import com.fl4nk3r.luminalib.exception.BadRequestException;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.JacksonSerializable;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.jsontype.TypeSerializer;
+
+/**
+ * Sparse fieldsets for list responses, e.g. {@code ?fields=id,title}.
+ * Every field of a response type is registered with a writer that puts it
+ * straight onto the JsonGenerator under a pre-encoded name, so a selected row
+ * is written without reflection and without the fields the client did not
+ * ask for. Selected fields are written in registration order.
+ *
+ * @param <T> Type of the response rows
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public final class SparseFieldSet<T> {
+
+    /**
+     * Writes one field of a row, name included
+     */
+    @FunctionalInterface
+    public interface FieldWriter<T> {
+        void write(JsonGenerator generator, T row);
+    }
+
+    private final Map<String, FieldWriter<T>> writers;
+
+    private SparseFieldSet(Map<String, FieldWriter<T>> writers) {
+        this.writers = writers;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Parses a fields parameter
+     *
+     * @param fields Comma separated field names, null or blank for every field
+     * @return The selection to apply to the response rows
+     * @throws BadRequestException if a field name is unknown
+     */
+    public Selection<T> select(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return new Selection<>(null);
+        }
+
+        Set<String> requested = new HashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!writers.containsKey(name)) {
+                throw BadRequestException
+                        .stackless("Unknown field '" + name + "', expected any of " + writers.keySet());
+            }
+            requested.add(name);
+        }
+
+        List<FieldWriter<T>> selected = new ArrayList<>(requested.size());
+        writers.forEach((name, writer) -> {
+            if (requested.contains(name)) {
+                selected.add(writer);
+            }
+        });
+        return new Selection<>(selected);
+    }
+
+    /**
+     * Fields picked by a fields parameter
+     */
+    public static final class Selection<T> {
+        private final List<FieldWriter<T>> writers;
+
+        private Selection(List<FieldWriter<T>> writers) {
+            this.writers = writers;
+        }
+
+        /**
+         * @param rows Full response rows
+         * @return The rows themselves when every field is selected, otherwise
+         *         rows that only write the selected fields
+         */
+        public List<Object> apply(List<T> rows) {
+            if (writers == null) {
+                return Collections.unmodifiableList(rows);
+            }
+            List<Object> sparse = new ArrayList<>(rows.size());
+            for (T row : rows) {
+                sparse.add(new SparseRow<>(row, writers));
+            }
+            return sparse;
+        }
+
+        /**
+         * @param page Page of full response rows
+         * @return The same page with the selection applied to its content
+         */
+        public CursorPageResponse<Object> apply(CursorPageResponse<T> page) {
+            return CursorPageResponse.<Object>builder()
+                    .content(apply(page.getContent()))
+                    .size(page.getSize())
+                    .nextCursor(page.getNextCursor())
+                    .build();
+        }
+    }
+
+    /**
+     * A row serialized as an object holding only the selected fields
+     */
+    private record SparseRow<T>(T row, List<FieldWriter<T>> writers) implements JacksonSerializable {
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializationContext context) {
+            generator.writeStartObject(row);
+            for (FieldWriter<T> writer : writers) {
+                writer.write(generator, row);
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator generator, SerializationContext context,
+                TypeSerializer typeSerializer) {
+            serialize(generator, context);
+        }
+    }
+
+    public static final class Builder<T> {
+        private final Map<String, FieldWriter<T>> writers = new LinkedHashMap<>();
+
+        /**
+         * Registers a text field
+         */
+        public Builder<T> string(String name, Function<T, String> getter) {
+            SerializableString key = new SerializedString(name);
+            writers.put(name, (generator, row) -> {
+                generator.writeName(key);
+                String value = getter.apply(row);
+                if (value == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeString(value);
+                }
+            });
+            return this;
+        }
+
+        /**
+         * Registers a whole number field that is never null
+         */
+        public Builder<T> number(String name, ToLongFunction<T> getter) {
+            SerializableString key = new SerializedString(name);
+            writers.put(name, (generator, row) -> {
+                generator.writeName(key);
+                generator.writeNumber(getter.applyAsLong(row));
+            });
+            return this;
+        }
+
+        public SparseFieldSet<T> build() {
+            return new SparseFieldSet<>(new LinkedHashMap<>(writers));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.fl4nk3r.luminalib.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for a typeahead suggestion: the completed title or
+ * author name, which of the two it is (TITLE or AUTHOR) and the number of
+ * books that have it.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionResponse {
+    private String text;
+    private String type;
+    private int bookCount;
+}
@@ -0,0 +1,27 @@
+package com.fl4nk3r.luminalib.dto.response;
+
+/**
+ * Read projection of a user.
+ * Holds the profile columns only: no password hash and none of the Spring
+ * Security flags the User entity exposes as getters. {@link #FIELDS} writes
+ * any subset of them for a {@code ?fields=} request.
+ *
+ * @param id        User ID
+ * @param email     Email, also the login name
+ * @param firstName First name
+ * @param lastName  Last name
+ * @param role      Role, e.g. ROLE_USER or ROLE_ADMIN
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public record UserResponse(Long id, String email, String firstName, String lastName, String role) {
+
+    public static final SparseFieldSet<UserResponse> FIELDS = SparseFieldSet.<UserResponse>builder()
+            .number("id", UserResponse::id)
+            .string("email", UserResponse::email)
+            .string("firstName", UserResponse::firstName)
+            .string("lastName", UserResponse::lastName)
+            .string("role", UserResponse::role)
+            .build();
+}
@@ -1,11 +1,23 @@
 package com.fl4nk3r.luminalib.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fl4nk3r.luminalib.search.TextNormalizer;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
@@ -31,21 +43,42 @@ import lombok.Setter;
  * book.setGenre("Fiction");
  * book.setTotalCopies(5);
  * book.setAvailableCopies(5);
+ * The genre is stored as entered; genreKey holds its canonical form
+ * ("Sci-Fi" and "sci fi" both become "sci-fi") and is what genre lookups use.
+ * normalizedTitle and normalizedAuthor hold the title and author lower-cased,
+ * without accents or punctuation, and back the indexed prefix search.
+ * The schema, indexes included, is defined by the migrations in
+ * db/migration; the indexes listed here only mirror them.
+ * version is bumped by Hibernate on every update and backs the book's ETag.
+ * IDs come from a pooled table generator rather than an identity column, so
+ * Hibernate can batch inserts (see BookIdGeneratorInitializer).
  * 
  * @author fl4nk3r
  * @version 1.0
  * @since 2024-06
  */
 @Entity
-@Table(name = "books")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Book.CACHE_REGION)
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_genre_key", columnList = "genre_key, id"),
+        @Index(name = "idx_books_normalized_title", columnList = "normalized_title"),
+        @Index(name = "idx_books_normalized_author", columnList = "normalized_author")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Book {
 
+    public static final String ID_GENERATOR = "books";
+    public static final String CACHE_REGION = "luminalib.book";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = ID_GENERATOR)
+    @TableGenerator(name = ID_GENERATOR, table = "id_generators", pkColumnName = "name",
+            valueColumnName = "next_val", pkColumnValue = ID_GENERATOR, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank(message = "Title is required")
@@ -64,10 +97,38 @@ public class Book {
     @NotBlank(message = "Genre is required")
     private String genre;
 
+    @JsonIgnore
+    @Column(name = "genre_key")
+    private String genreKey;
+
+    @JsonIgnore
+    @Column(name = "normalized_title")
+    private String normalizedTitle;
+
+    @JsonIgnore
+    @Column(name = "normalized_author")
+    private String normalizedAuthor;
+
     @Min(0)
     private int totalCopies;
 
     @Min(0)
     private int availableCopies;
 
+    @JsonIgnore
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * Derives the canonical genre key and the normalized title and author
+     * before every insert and update
+     */
+    @PrePersist
+    @PreUpdate
+    public void deriveKeys() {
+        genreKey = TextNormalizer.key(genre);
+        normalizedTitle = TextNormalizer.normalize(title);
+        normalizedAuthor = TextNormalizer.normalize(author);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.fl4nk3r.luminalib.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Loan entity: one copy of a book borrowed by a user.
+ * A loan is open until returnedAt is set; the copy it holds is counted out of
+ * the book's availableCopies for as long as it is open.
+ * The user and the book are held as plain IDs rather than associations, so
+ * recording a loan never loads either of them; the foreign keys are enforced
+ * by the schema (see db/migration), as are the indexes listed here.
+ * Loans are not cached: the ledger is written far more often than any one
+ * loan is read.
+ * Example usage:
+ * Loan loan = Loan.builder()
+ * .userId(user.getId())
+ * .bookId(book.getId())
+ * .borrowedAt(now)
+ * .dueAt(now.plusDays(14))
+ * .build();
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Entity
+@Table(name = "loans", indexes = {
+        @Index(name = "idx_loans_user", columnList = "user_id, id"),
+        @Index(name = "idx_loans_open", columnList = "returned_at, due_at, id"),
+        @Index(name = "idx_loans_book", columnList = "book_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Loan {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(nullable = false)
+    private LocalDateTime borrowedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime dueAt;
+
+    private LocalDateTime returnedAt;
+}
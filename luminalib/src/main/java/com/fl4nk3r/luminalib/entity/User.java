@@ -9,6 +9,10 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -49,8 +53,13 @@ import lombok.Setter;
 @AllArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
 @Table(name = "users")
 public class User implements UserDetails {
+
+    public static final String CACHE_REGION = "luminalib.user";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -72,6 +81,15 @@ public class User implements UserDetails {
 
     private String role;
 
+    /**
+     * Version of the user's tokens: tokens carry the version they were
+     * issued with and stop being accepted once it is incremented
+     */
+    @JsonIgnore
+    @Builder.Default
+    @Column(nullable = false)
+    private Long tokenVersion = 0L;
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return List.of(new SimpleGrantedAuthority(role));
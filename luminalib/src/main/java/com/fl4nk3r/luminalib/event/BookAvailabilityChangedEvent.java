@@ -0,0 +1,17 @@
+package com.fl4nk3r.luminalib.event;
+
+/**
+ * Application event published by BookService when a copy of a book is checked
+ * out or returned.
+ * Only availableCopies and the version change, so listeners evict cached
+ * copies of the book without touching the search indexes. Like
+ * {@link BookChangedEvent} it is handled after the transaction commits.
+ *
+ * @param bookId  ID of the affected book
+ * @param version Version of the book after the change
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public record BookAvailabilityChangedEvent(Long bookId, long version) {
+}
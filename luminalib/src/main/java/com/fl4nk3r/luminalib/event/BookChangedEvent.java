@@ -0,0 +1,38 @@
+package com.fl4nk3r.luminalib.event;
+
+import com.fl4nk3r.luminalib.entity.Book;
+
+/**
+ * Application event published by BookService whenever a book is created,
+ * updated or deleted.
+ * In-memory catalog structures (search index, caches) listen for it after the
+ * surrounding transaction commits, so they never see changes that were rolled
+ * back.
+ *
+ * @param type   The kind of change
+ * @param bookId ID of the affected book
+ * @param book   The saved book, or null when the book was deleted
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public record BookChangedEvent(Type type, Long bookId, Book book) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static BookChangedEvent created(Book book) {
+        return new BookChangedEvent(Type.CREATED, book.getId(), book);
+    }
+
+    public static BookChangedEvent updated(Book book) {
+        return new BookChangedEvent(Type.UPDATED, book.getId(), book);
+    }
+
+    public static BookChangedEvent deleted(Long bookId) {
+        return new BookChangedEvent(Type.DELETED, bookId, null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.fl4nk3r.luminalib.event;
+
+/**
+ * Application event published by TokenVersionService when a user's token
+ * version is incremented, e.g. because their role or password changed.
+ * It is handled after the transaction commits, so the cached version is only
+ * dropped once the new one can be read back.
+ *
+ * @param email Email of the affected user
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public record UserTokensRevokedEvent(String email) {
+}
@@ -27,4 +27,28 @@ public class BadRequestException extends RuntimeException {
     public BadRequestException(String message) {
         super(message);
     }
+
+    /**
+     * Constructor for BadRequestException, optionally without a stack trace.
+     * 
+     * @param message            The detail message for the exception.
+     * @param writableStackTrace Whether the stack trace is captured.
+     */
+    protected BadRequestException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * Create an exception for an expected outcome of a client request. The
+     * stack trace is not captured, as the handler never logs it, which makes
+     * throwing it much cheaper.
+     * 
+     * Example usage: throw BadRequestException.stackless("Missing required field: title");
+     * 
+     * @param message The detail message for the exception.
+     * @return The exception, without a stack trace.
+     */
+    public static BadRequestException stackless(String message) {
+        return new BadRequestException(message, false);
+    }
 }
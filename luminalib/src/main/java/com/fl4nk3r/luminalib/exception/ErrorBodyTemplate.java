@@ -0,0 +1,225 @@
+package com.fl4nk3r.luminalib.exception;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.springframework.http.HttpStatus;
+
+import com.fl4nk3r.luminalib.dto.response.ErrorResponse;
+
+/**
+ * Serialized {@link ErrorResponse} for one status and message prefix, for the
+ * errors clients trigger routinely (unknown ids, invalid input, failed
+ * logins).
+ * Everything but the timestamp, the variable end of the message and the
+ * request path is encoded once, and a body is written straight into a byte
+ * array of the exact size, so the handler neither builds the DTO nor goes
+ * through Jackson. The bytes are the same as Jackson writes for the DTO.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public final class ErrorBodyTemplate {
+
+    private static final byte[] START = ascii("{\"timestamp\":\"");
+    private static final byte[] PATH = ascii("\",\"path\":\"");
+    private static final byte[] END = ascii("\"}");
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    private final HttpStatus status;
+    private final byte[] middle;
+
+    /**
+     * @param status        Status of the response
+     * @param messagePrefix Start of every error message, or the whole message
+     *                      when it never varies
+     */
+    public ErrorBodyTemplate(HttpStatus status, String messagePrefix) {
+        this.status = status;
+        String middleText = "\",\"status\":\"" + status + "\",\"errorMessage\":\"";
+        byte[] fixed = ascii(middleText);
+        this.middle = new byte[fixed.length + escapedLength(messagePrefix)];
+        System.arraycopy(fixed, 0, middle, 0, fixed.length);
+        writeEscaped(messagePrefix, middle, fixed.length);
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @param timestamp Time of the error
+     * @param message   Rest of the error message, or null if the prefix is the
+     *                  whole message
+     * @param path      Request path
+     * @return UTF-8 JSON body
+     */
+    public byte[] render(LocalDateTime timestamp, String message, String path) {
+        int nanos = timestamp.getNano();
+        int year = timestamp.getYear();
+        if (year < 0 || year > 9999) {
+            return renderFormatted(timestamp, message, path);
+        }
+        int fractionDigits = 0;
+        if (nanos != 0) {
+            fractionDigits = 9;
+            for (int n = nanos; n % 10 == 0; n /= 10) {
+                fractionDigits--;
+            }
+        }
+        int timestampLength = 19 + (fractionDigits == 0 ? 0 : 1 + fractionDigits);
+
+        byte[] body = new byte[START.length + timestampLength + middle.length + escapedLength(message)
+                + PATH.length + escapedLength(path) + END.length];
+        int at = put(START, body, 0);
+        at = digits(year, 4, body, at);
+        body[at++] = '-';
+        at = digits(timestamp.getMonthValue(), 2, body, at);
+        body[at++] = '-';
+        at = digits(timestamp.getDayOfMonth(), 2, body, at);
+        body[at++] = 'T';
+        at = digits(timestamp.getHour(), 2, body, at);
+        body[at++] = ':';
+        at = digits(timestamp.getMinute(), 2, body, at);
+        body[at++] = ':';
+        at = digits(timestamp.getSecond(), 2, body, at);
+        if (fractionDigits > 0) {
+            body[at++] = '.';
+            int fraction = nanos;
+            for (int i = fractionDigits; i < 9; i++) {
+                fraction /= 10;
+            }
+            at = digits(fraction, fractionDigits, body, at);
+        }
+        at = put(middle, body, at);
+        at = writeEscaped(message, body, at);
+        at = put(PATH, body, at);
+        at = writeEscaped(path, body, at);
+        put(END, body, at);
+        return body;
+    }
+
+    /**
+     * Years outside 0000-9999 are formatted with a sign; left to the
+     * formatter as they never occur in practice
+     */
+    private byte[] renderFormatted(LocalDateTime timestamp, String message, String path) {
+        byte[] time = ascii(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp));
+        byte[] body = new byte[START.length + time.length + middle.length + escapedLength(message)
+                + PATH.length + escapedLength(path) + END.length];
+        int at = put(START, body, 0);
+        at = put(time, body, at);
+        at = put(middle, body, at);
+        at = writeEscaped(message, body, at);
+        at = put(PATH, body, at);
+        at = writeEscaped(path, body, at);
+        put(END, body, at);
+        return body;
+    }
+
+    private static int put(byte[] bytes, byte[] body, int at) {
+        System.arraycopy(bytes, 0, body, at, bytes.length);
+        return at + bytes.length;
+    }
+
+    private static int digits(int value, int width, byte[] body, int at) {
+        for (int i = at + width - 1; i >= at; i--) {
+            body[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return at + width;
+    }
+
+    /**
+     * @return Number of bytes the text takes as the content of a JSON string
+     *         in UTF-8, escaped the way Jackson escapes it
+     */
+    private static int escapedLength(String text) {
+        if (text == null) {
+            return 0;
+        }
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x20) {
+                length += shortEscape(c) != 0 ? 2 : 6;
+            } else if (c == '"' || c == '\\') {
+                length += 2;
+            } else if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static int writeEscaped(String text, byte[] body, int at) {
+        if (text == null) {
+            return at;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x20) {
+                body[at++] = '\\';
+                char escape = shortEscape(c);
+                if (escape != 0) {
+                    body[at++] = (byte) escape;
+                } else {
+                    body[at++] = 'u';
+                    body[at++] = '0';
+                    body[at++] = '0';
+                    body[at++] = HEX[c >> 4];
+                    body[at++] = HEX[c & 0xF];
+                }
+            } else if (c == '"' || c == '\\') {
+                body[at++] = '\\';
+                body[at++] = (byte) c;
+            } else if (c < 0x80) {
+                body[at++] = (byte) c;
+            } else if (c < 0x800) {
+                body[at++] = (byte) (0xC0 | (c >> 6));
+                body[at++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                body[at++] = (byte) (0xF0 | (codePoint >> 18));
+                body[at++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                body[at++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                body[at++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                body[at++] = '?';
+            } else {
+                body[at++] = (byte) (0xE0 | (c >> 12));
+                body[at++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                body[at++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return at;
+    }
+
+    private static char shortEscape(char c) {
+        return switch (c) {
+            case '\b' -> 'b';
+            case '\t' -> 't';
+            case '\n' -> 'n';
+            case '\f' -> 'f';
+            case '\r' -> 'r';
+            default -> 0;
+        };
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
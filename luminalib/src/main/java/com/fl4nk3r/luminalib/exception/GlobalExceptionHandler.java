@@ -2,7 +2,10 @@ package com.fl4nk3r.luminalib.exception;
 
 import java.time.LocalDateTime;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.AuthenticationException;
@@ -23,6 +26,10 @@ import jakarta.servlet.http.HttpServletRequest;
  * as well as a generic handler for all other exceptions.
  * Each handler returns a structured ErrorResponse with details about the error,
  * including a timestamp, HTTP status code, error message, and the request path.
+ * The errors clients cause routinely (not found, bad request, unauthorized,
+ * failed login, conflict, rate limited, overloaded) are written from precomputed
+ * {@link ErrorBodyTemplate}s instead of through Jackson, and the domain
+ * exceptions behind them are thrown without stack traces.
  * 
  * @author fl4nk3r
  * @version 1.0
@@ -31,6 +38,21 @@ import jakarta.servlet.http.HttpServletRequest;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final ErrorBodyTemplate NOT_FOUND = new ErrorBodyTemplate(HttpStatus.NOT_FOUND,
+            "Resource not found: ");
+    private static final ErrorBodyTemplate UNAUTHORIZED = new ErrorBodyTemplate(HttpStatus.UNAUTHORIZED,
+            "Unauthorized access: ");
+    private static final ErrorBodyTemplate BAD_REQUEST = new ErrorBodyTemplate(HttpStatus.BAD_REQUEST,
+            "Bad request: ");
+    private static final ErrorBodyTemplate CONFLICT = new ErrorBodyTemplate(HttpStatus.CONFLICT,
+            "Conflict: the resource was modified concurrently, please retry");
+    private static final ErrorBodyTemplate BAD_CREDENTIALS = new ErrorBodyTemplate(HttpStatus.UNAUTHORIZED,
+            "Invalid email or password");
+    private static final ErrorBodyTemplate TOO_MANY_REQUESTS = new ErrorBodyTemplate(HttpStatus.TOO_MANY_REQUESTS,
+            "Too many requests: ");
+    private static final ErrorBodyTemplate SERVICE_UNAVAILABLE = new ErrorBodyTemplate(
+            HttpStatus.SERVICE_UNAVAILABLE, "Service unavailable: ");
+
     /**
      * Helper method to build an ErrorResponse object.
      * 
@@ -48,6 +70,40 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    /**
+     * Helper method to write an error response from a template.
+     * 
+     * @param template Serialized error response for the status and message
+     *                 prefix.
+     * @param message  The rest of the error message, null if none.
+     * @param request  The request that caused the error.
+     * @return Response with the serialized error body.
+     */
+    private ResponseEntity<byte[]> errorBody(ErrorBodyTemplate template, String message,
+            HttpServletRequest request) {
+        byte[] body = template.render(LocalDateTime.now(), message, request.getRequestURI());
+        return ResponseEntity.status(template.getStatus()).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Helper method to write an error response from a template, telling the
+     * client when to retry.
+     * 
+     * @param template          Serialized error response for the status and
+     *                          message prefix.
+     * @param message           The rest of the error message.
+     * @param retryAfterSeconds Seconds the client should wait before retrying.
+     * @param request           The request that caused the error.
+     * @return Response with the serialized error body and a Retry-After header.
+     */
+    private ResponseEntity<byte[]> retryLaterBody(ErrorBodyTemplate template, String message,
+            long retryAfterSeconds, HttpServletRequest request) {
+        byte[] body = template.render(LocalDateTime.now(), message, request.getRequestURI());
+        return ResponseEntity.status(template.getStatus()).contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(body);
+    }
+
     /**
      * Handler for ResourceNotFoundException.
      * 
@@ -58,12 +114,9 @@ public class GlobalExceptionHandler {
      *         found.
      */
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex,
+    public ResponseEntity<byte[]> handleResourceNotFoundException(ResourceNotFoundException ex,
             HttpServletRequest request) {
-        ErrorResponse errorResponse = buildErrorResponse(HttpStatus.NOT_FOUND,
-                "Resource not found: " + ex.getMessage(),
-                request.getRequestURI());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        return errorBody(NOT_FOUND, ex.getMessage(), request);
     }
 
     /**
@@ -75,12 +128,9 @@ public class GlobalExceptionHandler {
      * @return The message from the exception, indicating unauthorized access.
      */
     @ExceptionHandler(UnauthorizedException.class)
-    public ResponseEntity<ErrorResponse> handleUnauthorizedException(UnauthorizedException ex,
+    public ResponseEntity<byte[]> handleUnauthorizedException(UnauthorizedException ex,
             HttpServletRequest request) {
-        ErrorResponse errorResponse = buildErrorResponse(HttpStatus.UNAUTHORIZED,
-                "Unauthorized access: " + ex.getMessage(),
-                request.getRequestURI());
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+        return errorBody(UNAUTHORIZED, ex.getMessage(), request);
     }
 
     /**
@@ -92,11 +142,50 @@ public class GlobalExceptionHandler {
      * @return The message from the exception, indicating a bad request.
      */
     @ExceptionHandler(BadRequestException.class)
-    public ResponseEntity<ErrorResponse> handleBadRequestException(BadRequestException ex, HttpServletRequest request) {
-        ErrorResponse errorResponse = buildErrorResponse(HttpStatus.BAD_REQUEST,
-                "Bad request: " + ex.getMessage(),
-                request.getRequestURI());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    public ResponseEntity<byte[]> handleBadRequestException(BadRequestException ex, HttpServletRequest request) {
+        return errorBody(BAD_REQUEST, ex.getMessage(), request);
+    }
+
+    /**
+     * Handler for concurrent updates of the same entity, detected through its
+     * version column.
+     * 
+     * @param ex      The OptimisticLockingFailureException that was thrown.
+     * @param request The HttpServletRequest that caused the exception.
+     * @return Error response asking the client to retry.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<byte[]> handleOptimisticLockingFailure(OptimisticLockingFailureException ex,
+            HttpServletRequest request) {
+        return errorBody(CONFLICT, null, request);
+    }
+
+    /**
+     * Handler for TooManyRequestsException, thrown when a client exceeds a
+     * rate limit.
+     * 
+     * @param ex      The TooManyRequestsException that was thrown.
+     * @param request The HttpServletRequest that caused the exception.
+     * @return Error response with a Retry-After header.
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<byte[]> handleTooManyRequestsException(TooManyRequestsException ex,
+            HttpServletRequest request) {
+        return retryLaterBody(TOO_MANY_REQUESTS, ex.getMessage(), ex.getRetryAfterSeconds(), request);
+    }
+
+    /**
+     * Handler for ServiceUnavailableException, thrown when the server sheds
+     * load instead of queueing more work.
+     * 
+     * @param ex      The ServiceUnavailableException that was thrown.
+     * @param request The HttpServletRequest that caused the exception.
+     * @return Error response with a Retry-After header.
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<byte[]> handleServiceUnavailableException(ServiceUnavailableException ex,
+            HttpServletRequest request) {
+        return retryLaterBody(SERVICE_UNAVAILABLE, ex.getMessage(), ex.getRetryAfterSeconds(), request);
     }
 
     /**
@@ -128,12 +217,9 @@ public class GlobalExceptionHandler {
      * @return Error response for authentication failures.
      */
     @ExceptionHandler({ AuthenticationException.class, BadCredentialsException.class })
-    public ResponseEntity<ErrorResponse> handleAuthenticationException(AuthenticationException ex,
+    public ResponseEntity<byte[]> handleAuthenticationException(AuthenticationException ex,
             HttpServletRequest request) {
-        ErrorResponse errorResponse = buildErrorResponse(HttpStatus.UNAUTHORIZED,
-                "Invalid email or password",
-                request.getRequestURI());
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+        return errorBody(BAD_CREDENTIALS, null, request);
     }
 
     /**
@@ -25,4 +25,28 @@ public class ResourceNotFoundException extends RuntimeException {
     public ResourceNotFoundException(String message) {
         super(message);
     }
+
+    /**
+     * Constructor for ResourceNotFoundException, optionally without a stack trace.
+     * 
+     * @param message            The detail message for the exception.
+     * @param writableStackTrace Whether the stack trace is captured.
+     */
+    protected ResourceNotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * Create an exception for an expected outcome of a client request. The
+     * stack trace is not captured, as the handler never logs it, which makes
+     * throwing it much cheaper.
+     * 
+     * Example usage: throw ResourceNotFoundException.stackless("Book with ID " + id + " not found");
+     * 
+     * @param message The detail message for the exception.
+     * @return The exception, without a stack trace.
+     */
+    public static ResourceNotFoundException stackless(String message) {
+        return new ResourceNotFoundException(message, false);
+    }
 }
@@ -0,0 +1,61 @@
+package com.fl4nk3r.luminalib.exception;
+
+/**
+ * Custom exception for work the server is too busy to take on right now.
+ * It is thrown instead of queueing a request that would wait too long, so the
+ * client can back off and retry; the handler answers with 503 Service
+ * Unavailable and a Retry-After header.
+ * 
+ * Example usage: throw new ServiceUnavailableException("Too many logins in
+ * progress", 1);
+ * 
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor for ServiceUnavailableException.
+     * 
+     * @param message           The detail message for the exception.
+     * @param retryAfterSeconds Seconds the client should wait before retrying.
+     */
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Constructor for ServiceUnavailableException, optionally without a stack trace.
+     * 
+     * @param message            The detail message for the exception.
+     * @param retryAfterSeconds  Seconds the client should wait before retrying.
+     * @param writableStackTrace Whether the stack trace is captured.
+     */
+    protected ServiceUnavailableException(String message, long retryAfterSeconds, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Create an exception for an expected outcome of a client request. The
+     * stack trace is not captured, as the handler never logs it, which makes
+     * throwing it much cheaper.
+     * 
+     * Example usage: throw ServiceUnavailableException.stackless("Too many logins in progress", 1);
+     * 
+     * @param message           The detail message for the exception.
+     * @param retryAfterSeconds Seconds the client should wait before retrying.
+     * @return The exception, without a stack trace.
+     */
+    public static ServiceUnavailableException stackless(String message, long retryAfterSeconds) {
+        return new ServiceUnavailableException(message, retryAfterSeconds, false);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
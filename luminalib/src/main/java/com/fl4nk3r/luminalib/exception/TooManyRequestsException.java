@@ -0,0 +1,61 @@
+package com.fl4nk3r.luminalib.exception;
+
+/**
+ * Custom exception for a client that has sent too many requests of a kind,
+ * such as repeated login attempts for the same account or from the same
+ * address. The handler answers with 429 Too Many Requests and a Retry-After
+ * header.
+ * 
+ * Example usage: throw new TooManyRequestsException("Too many login attempts",
+ * 60);
+ * 
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor for TooManyRequestsException.
+     * 
+     * @param message           The detail message for the exception.
+     * @param retryAfterSeconds Seconds the client should wait before retrying.
+     */
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Constructor for TooManyRequestsException, optionally without a stack trace.
+     * 
+     * @param message            The detail message for the exception.
+     * @param retryAfterSeconds  Seconds the client should wait before retrying.
+     * @param writableStackTrace Whether the stack trace is captured.
+     */
+    protected TooManyRequestsException(String message, long retryAfterSeconds, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Create an exception for an expected outcome of a client request. The
+     * stack trace is not captured, as the handler never logs it, which makes
+     * throwing it much cheaper.
+     * 
+     * Example usage: throw TooManyRequestsException.stackless("Too many login attempts", 1);
+     * 
+     * @param message           The detail message for the exception.
+     * @param retryAfterSeconds Seconds the client should wait before retrying.
+     * @return The exception, without a stack trace.
+     */
+    public static TooManyRequestsException stackless(String message, long retryAfterSeconds) {
+        return new TooManyRequestsException(message, retryAfterSeconds, false);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
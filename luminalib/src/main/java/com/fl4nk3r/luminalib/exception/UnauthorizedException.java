@@ -27,4 +27,28 @@ public class UnauthorizedException extends RuntimeException {
     public UnauthorizedException(String message) {
         super(message);
     }
+
+    /**
+     * Constructor for UnauthorizedException, optionally without a stack trace.
+     * 
+     * @param message            The detail message for the exception.
+     * @param writableStackTrace Whether the stack trace is captured.
+     */
+    protected UnauthorizedException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * Create an exception for an expected outcome of a client request. The
+     * stack trace is not captured, as the handler never logs it, which makes
+     * throwing it much cheaper.
+     * 
+     * Example usage: throw UnauthorizedException.stackless("Bearer token required");
+     * 
+     * @param message The detail message for the exception.
+     * @return The exception, without a stack trace.
+     */
+    public static UnauthorizedException stackless(String message) {
+        return new UnauthorizedException(message, false);
+    }
 }
@@ -1,41 +1,215 @@
 package com.fl4nk3r.luminalib.repository;
 
+import com.fl4nk3r.luminalib.dto.response.BookSummaryResponse;
+import com.fl4nk3r.luminalib.dto.response.GenreCountResponse;
 import com.fl4nk3r.luminalib.entity.Book;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
+
+    /**
+     * Query cache region of the cacheable book queries; Hibernate drops their
+     * results whenever the books table is written
+     */
+    String QUERY_CACHE_REGION = "luminalib.book-queries";
+
+    /**
+     * Query space the copy updates are synchronized on instead of the books
+     * table. Hibernate drops the whole Book region after a statement on the
+     * books table it cannot map to single rows, so the copy updates name a
+     * space no entity uses, and CatalogIndexService evicts the one book they
+     * changed before and again after the transaction commits.
+     */
+    String COPIES_QUERY_SPACE = "luminalib.book-copies";
     
     /**
      * Find a book by ISBN
      * @param isbn ISBN number
      * @return Optional containing book if found
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
     Optional<Book> findByIsbn(String isbn);
 
     /**
-     * Search books by title or author (case-insensitive)
-     * @param title Title keyword
-     * @param author Author keyword
-     * @return List of matching books
+     * Find which of the given ISBNs are already in the catalog, in one query
+     * @param isbns ISBN numbers to check
+     * @return The ISBNs that already belong to a book
+     */
+    @Query("select b.isbn from Book b where b.isbn in :isbns")
+    List<String> findExistingIsbns(Collection<String> isbns);
+
+    /**
+     * Fetch the page of a genre's books that follows the given id.
+     * Served by the (genre_key, id) index.
+     * @param genreKey Canonical genre key
+     * @param id Id of the last book the client has seen
+     * @param limit Maximum number of books to return
+     * @return Summaries of the books in that genre with an id greater than the cursor, ordered by id
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    List<BookSummaryResponse> findByGenreKeyAndIdGreaterThanOrderByIdAsc(String genreKey, Long id, Limit limit);
+
+    /**
+     * Count books per canonical genre
+     * @return Genre facets, largest genre first
+     */
+    @Query("select new com.fl4nk3r.luminalib.dto.response.GenreCountResponse(min(b.genre), b.genreKey, count(b)) "
+            + "from Book b group by b.genreKey order by count(b) desc, b.genreKey")
+    List<GenreCountResponse> countBooksByGenre();
+
+    /**
+     * Find books saved before normalized titles and authors existed; these
+     * also include every book saved before genre keys existed
+     * @param limit Maximum number of books to return
+     * @return Books without a normalized title
+     */
+    List<Book> findByNormalizedTitleIsNull(Limit limit);
+
+    /**
+     * Take one copy of a book, in a single conditional update.
+     * The row is only changed while a copy is available, so concurrent
+     * checkouts can never drive availableCopies below 0. Synchronized on
+     * {@link #COPIES_QUERY_SPACE}, so cached books are left alone.
+     * @param id Book ID
+     * @return 1 if a copy was taken, 0 if none was available or the book does not exist
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COPIES_QUERY_SPACE))
+    @Query(value = "update books set available_copies = available_copies - 1, version = version + 1 "
+            + "where id = :id and available_copies > 0", nativeQuery = true)
+    int checkoutCopy(Long id);
+
+    /**
+     * Put one copy of a book back, in a single conditional update.
+     * The row is only changed while a copy is out, so availableCopies never
+     * exceeds totalCopies. Synchronized on {@link #COPIES_QUERY_SPACE}, so
+     * cached books are left alone.
+     * @param id Book ID
+     * @return 1 if a copy was returned, 0 if all copies were in or the book does not exist
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COPIES_QUERY_SPACE))
+    @Query(value = "update books set available_copies = available_copies + 1, version = version + 1 "
+            + "where id = :id and available_copies < total_copies", nativeQuery = true)
+    int returnCopy(Long id);
+
+    /**
+     * Read the current version of a book without loading it
+     * @param id Book ID
+     * @return The book's version
+     */
+    @Query("select b.version from Book b where b.id = :id")
+    long findVersionById(Long id);
+
+    /**
+     * Count the books and add up their versions. Every committed insert,
+     * update, copy change and delete changes one or the other, so two
+     * different fingerprints mean the table was written in between.
+     * @return Fingerprint of the books table
+     */
+    @Query("select count(b), coalesce(sum(b.version), 0) from Book b")
+    Fingerprint findFingerprint();
+
+    /**
+     * Stream the id and version of every book, from a forward-only cursor
+     * fetched in chunks of 500 rows; the caller must consume the stream inside
+     * a transaction and close it
+     * @return Stream of book versions, in no particular order
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select b.id, b.version from Book b")
+    Stream<BookVersion> streamVersions();
+
+    /**
+     * Load a book from the database rather than the second-level cache, and
+     * put the row read into the cache.
+     * For writes: a reader that loaded the row before a copy update committed
+     * can put it back into the cache after the update's eviction, and a write
+     * based on that entry would fail its version check.
+     * @param id Book ID
+     * @return Optional containing the book if found
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
+    @Query("select b from Book b where b.id = :id")
+    Optional<Book> findCurrentById(Long id);
+
+    /**
+     * Load books from the database rather than the second-level cache, see
+     * {@link #findCurrentById(Long)}
+     * @param ids Book IDs
+     * @return The books that exist, in no particular order
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
+    @Query("select b from Book b where b.id in :ids")
+    List<Book> findCurrentByIdIn(Collection<Long> ids);
+
+    /**
+     * Fetch the page of books that follows the given id (keyset pagination)
+     * @param id Id of the last book the client has seen
+     * @param limit Maximum number of books to return
+     * @return Summaries of the books with an id greater than the cursor, ordered by id
+     */
+    List<BookSummaryResponse> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Fetch the summaries of the given books, in no particular order
+     * Cached, as this is how genre pages and search results are loaded once
+     * the in-memory indexes are built
+     * @param ids Book IDs
+     * @return Summaries of the books that exist
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
+    List<BookSummaryResponse> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Stream the books that follow the given id, ordered by id, from a
+     * forward-only cursor.
+     * Entities are loaded read-only and fetched in chunks of 500 rows, so the
+     * caller must consume the stream inside a transaction and close it.
+     * MySQL only honours the fetch size when useCursorFetch=true is set on the
+     * JDBC URL.
+     * @param id Id to start after, 0 for the whole catalog
+     * @return Stream of books with an id greater than the given one
      */
-    List<Book> findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(String title, String author);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Book> streamByIdGreaterThanOrderByIdAsc(Long id);
 
     /**
-     * Find books by genre (case-insensitive)
-     * @param genre Genre name
-     * @return List of books in that genre
+     * Number of books and sum of their versions, see {@link #findFingerprint()}
      */
-    List<Book> findByGenreIgnoreCase(String genre);
+    record Fingerprint(long books, long versions) {
+    }
 
     /**
-     * Find books by author (case-insensitive)
-     * @param author Author name
-     * @return List of books by that author
+     * Version of one book, see {@link #streamVersions()}
      */
-    List<Book> findByAuthorContainingIgnoreCase(String author);
+    record BookVersion(Long id, long version) {
+    }
 }
@@ -0,0 +1,73 @@
+package com.fl4nk3r.luminalib.repository;
+
+import com.fl4nk3r.luminalib.dto.response.LoanResponse;
+import com.fl4nk3r.luminalib.entity.Loan;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LoanRepository extends JpaRepository<Loan, Long> {
+
+    /**
+     * Fetch the page of a user's loans that follows the given id, newest first.
+     * Served by the (user_id, id) index.
+     * @param userId User ID
+     * @param id Id of the last loan the client has seen
+     * @param limit Maximum number of loans to return
+     * @return The user's loans with an id lower than the cursor, ordered by id descending
+     */
+    List<LoanResponse> findByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long id, Limit limit);
+
+    /**
+     * Fetch the first page of open loans due before the given time, soonest
+     * due first.
+     * Served by the (returned_at, due_at, id) index: a range of due_at within
+     * the open loans, read in index order.
+     * @param now Loans due before this time are overdue
+     * @param limit Maximum number of loans to return
+     * @return Overdue loans ordered by due date, then id
+     */
+    List<LoanResponse> findByReturnedAtIsNullAndDueAtBeforeOrderByDueAtAscIdAsc(LocalDateTime now, Limit limit);
+
+    /**
+     * Fetch the page of open loans due before the given time that follows the
+     * loan at (dueAt, id), soonest due first.
+     * Served by the (returned_at, due_at, id) index: the due_at range starts at
+     * the cursor's due date, and the id only breaks ties within it.
+     * @param now Loans due before this time are overdue
+     * @param dueAt Due date of the last loan the client has seen
+     * @param id Id of the last loan the client has seen
+     * @param limit Maximum number of loans to return
+     * @return Overdue loans after the cursor, ordered by due date, then id
+     */
+    @Query("select new com.fl4nk3r.luminalib.dto.response.LoanResponse(l.id, l.bookId, l.userId, l.borrowedAt, "
+            + "l.dueAt, l.returnedAt) from Loan l where l.returnedAt is null and l.dueAt < :now "
+            + "and l.dueAt >= :dueAt and (l.dueAt > :dueAt or l.id > :id) order by l.dueAt, l.id")
+    List<LoanResponse> findOverdueAfter(LocalDateTime now, LocalDateTime dueAt, Long id, Limit limit);
+
+    /**
+     * Close an open loan, in a single conditional update.
+     * The row is only changed while the loan is open, so of two concurrent
+     * returns of the same loan only one succeeds.
+     * @param id Loan ID
+     * @param returnedAt Time of the return
+     * @return 1 if the loan was closed, 0 if it was already closed or does not exist
+     */
+    @Modifying
+    @Query("update Loan l set l.returnedAt = :returnedAt where l.id = :id and l.returnedAt is null")
+    int closeLoan(Long id, LocalDateTime returnedAt);
+
+    /**
+     * Check whether a book has ever been lent
+     * @param bookId Book ID
+     * @return true if a loan, open or closed, refers to the book
+     */
+    boolean existsByBookId(Long bookId);
+}
@@ -1,21 +1,87 @@
 package com.fl4nk3r.luminalib.repository;
 
+import com.fl4nk3r.luminalib.dto.response.UserResponse;
 import com.fl4nk3r.luminalib.entity.User;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    /**
+     * Query cache region of the cacheable user queries; Hibernate drops their
+     * results whenever the users table is written
+     */
+    String QUERY_CACHE_REGION = "luminalib.user-queries";
     
     /**
      * Find a user by email
      * @param email User email
      * @return Optional containing user if found
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)
+    })
     Optional<User> findByEmail(String email);
 
+    /**
+     * Find the profile of a user by email, without loading the entity
+     * @param email User email
+     * @return Optional containing the user's profile if found
+     */
+    Optional<UserResponse> findProfileByEmail(String email);
+
+    /**
+     * Find the profile of a user by ID, without loading the entity
+     * @param id User ID
+     * @return Optional containing the user's profile if found
+     */
+    Optional<UserResponse> findProfileById(Long id);
+
+    /**
+     * List every user's profile, ordered by ID
+     * @return Profiles of all users
+     */
+    List<UserResponse> findAllByOrderByIdAsc();
+
+    /**
+     * Read the current token version of a user without loading the entity
+     * @param email User email
+     * @return Optional containing the token version if the user exists
+     */
+    @Query("select u.tokenVersion from User u where u.email = :email")
+    Optional<Long> findTokenVersionByEmail(String email);
+
+    /**
+     * Increment a user's token version, invalidating every token issued so far
+     * @param email User email
+     * @return 1 if the user exists, 0 otherwise
+     */
+    @Modifying
+    @Query("update User u set u.tokenVersion = u.tokenVersion + 1 where u.email = :email")
+    int incrementTokenVersion(String email);
+
+    /**
+     * Replace the stored password hash of a user
+     * @param email User email
+     * @param password New password hash
+     * @return 1 if the user exists, 0 otherwise
+     */
+    @Modifying
+    @Query("update User u set u.password = :password where u.email = :email")
+    int updatePassword(String email, String password);
+
     /**
      * Check if email already exists
      * @param email Email to check
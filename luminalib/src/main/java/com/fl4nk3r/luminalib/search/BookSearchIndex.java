@@ -0,0 +1,366 @@
+package com.fl4nk3r.luminalib.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.fl4nk3r.luminalib.entity.Book;
+
+/**
+ * In-memory inverted index over book titles and authors.
+ * Titles and authors are normalized with {@link TextNormalizer} and every
+ * token is broken into character trigrams; each trigram maps to a sorted
+ * posting list of internal document numbers. A query token of three or more
+ * characters is answered by intersecting the posting lists of its trigrams and
+ * verifying the survivors, which gives the same substring semantics as
+ * {@code LIKE '%keyword%'} without touching the database.
+ * Multi-word queries match books that contain every query token in either the
+ * title or the author. Results are ranked so that whole-token matches beat
+ * prefix matches, which beat plain substring matches, and title matches weigh
+ * more than author matches.
+ * Updates assign a fresh document number and tombstone the old one; the index
+ * compacts itself once a quarter of the documents are dead. Reads share a
+ * read lock, writes take the write lock.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> docsByBookId = new HashMap<>();
+    private Map<Long, IntList> postings = new HashMap<>();
+    private long[] bookIds = new long[INITIAL_CAPACITY];
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private String[] authors = new String[INITIAL_CAPACITY];
+    private BitSet deleted = new BitSet();
+    private int docCount;
+    private int deletedCount;
+    private volatile boolean ready;
+
+    /**
+     * Adds a book to the index, replacing any previous entry with the same ID.
+     *
+     * @param book Book to index
+     */
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(book.getId());
+            addInternal(book.getId(), TextNormalizer.normalize(book.getTitle()),
+                    TextNormalizer.normalize(book.getAuthor()));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a book from the index.
+     *
+     * @param bookId ID of the book to remove
+     */
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(bookId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops every entry, e.g. before a full rebuild.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            docsByBookId.clear();
+            postings = new HashMap<>();
+            bookIds = new long[INITIAL_CAPACITY];
+            titles = new String[INITIAL_CAPACITY];
+            authors = new String[INITIAL_CAPACITY];
+            deleted = new BitSet();
+            docCount = 0;
+            deletedCount = 0;
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the initial load as finished. Until then callers should fall back
+     * to the database.
+     */
+    public void markReady() {
+        ready = true;
+    }
+
+    /**
+     * @return true once the index holds the full catalog
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return Number of books currently in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docsByBookId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches titles and authors for the given keyword.
+     *
+     * @param keyword    Free-text query
+     * @param maxResults Maximum number of IDs to return
+     * @return IDs of matching books, best match first
+     */
+    public List<Long> search(String keyword, int maxResults) {
+        String[] queryTokens = TextNormalizer.tokens(TextNormalizer.normalize(keyword));
+        if (queryTokens.length == 0 || maxResults <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] candidates = candidates(queryTokens);
+            int matchCount = 0;
+            long[] ranked = new long[candidates.length];
+            for (int doc : candidates) {
+                int score = score(doc, queryTokens);
+                if (score > 0) {
+                    // Higher score first, then lower document number (insertion order)
+                    ranked[matchCount++] = ((long) (Integer.MAX_VALUE - score) << 32) | doc;
+                }
+            }
+            Arrays.sort(ranked, 0, matchCount);
+
+            int resultCount = Math.min(matchCount, maxResults);
+            List<Long> result = new ArrayList<>(resultCount);
+            for (int i = 0; i < resultCount; i++) {
+                result.add(bookIds[(int) ranked[i]]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the document numbers that may match every query token. Tokens
+     * shorter than a trigram cannot narrow the candidates, so if no token is
+     * long enough every live document is a candidate.
+     */
+    private int[] candidates(String[] queryTokens) {
+        List<IntList> lists = new ArrayList<>();
+        for (String token : queryTokens) {
+            for (int i = 0; i + GRAM_LENGTH <= token.length(); i++) {
+                IntList posting = postings.get(gramKey(token, i));
+                if (posting == null) {
+                    return new int[0];
+                }
+                lists.add(posting);
+            }
+        }
+
+        if (lists.isEmpty()) {
+            int[] all = new int[docCount - deletedCount];
+            int n = 0;
+            for (int doc = deleted.nextClearBit(0); doc < docCount; doc = deleted.nextClearBit(doc + 1)) {
+                all[n++] = doc;
+            }
+            return all;
+        }
+
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        IntList smallest = lists.get(0);
+        int[] result = new int[smallest.size];
+        int n = 0;
+        outer: for (int i = 0; i < smallest.size; i++) {
+            int doc = smallest.values[i];
+            if (deleted.get(doc)) {
+                continue;
+            }
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(doc)) {
+                    continue outer;
+                }
+            }
+            result[n++] = doc;
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Scores a candidate against the query; 0 means at least one token is not
+     * present in either field.
+     */
+    private int score(int doc, String[] queryTokens) {
+        String title = titles[doc];
+        String author = authors[doc];
+        int total = 0;
+        for (String token : queryTokens) {
+            int tokenScore = Math.max(fieldScore(title, token, 10, 6, 3), fieldScore(author, token, 5, 3, 1));
+            if (tokenScore == 0) {
+                return 0;
+            }
+            total += tokenScore;
+        }
+        if (queryTokens.length > 1 && title.equals(String.join(" ", queryTokens))) {
+            total += 20;
+        }
+        return total;
+    }
+
+    private static int fieldScore(String field, String token, int whole, int prefix, int substring) {
+        int best = 0;
+        int from = 0;
+        int at;
+        while ((at = field.indexOf(token, from)) >= 0) {
+            boolean startsToken = at == 0 || field.charAt(at - 1) == ' ';
+            int end = at + token.length();
+            boolean endsToken = end == field.length() || field.charAt(end) == ' ';
+            int score = startsToken ? (endsToken ? whole : prefix) : substring;
+            if (score == whole) {
+                return whole;
+            }
+            best = Math.max(best, score);
+            from = at + 1;
+        }
+        return best;
+    }
+
+    private void addInternal(Long bookId, String title, String author) {
+        int doc = docCount++;
+        if (doc == bookIds.length) {
+            int capacity = bookIds.length * 2;
+            bookIds = Arrays.copyOf(bookIds, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            authors = Arrays.copyOf(authors, capacity);
+        }
+        bookIds[doc] = bookId;
+        titles[doc] = title;
+        authors[doc] = author;
+        docsByBookId.put(bookId, doc);
+
+        // Document numbers only grow, so appending keeps every posting list sorted
+        for (long gram : distinctGrams(title, author)) {
+            postings.computeIfAbsent(gram, key -> new IntList()).add(doc);
+        }
+    }
+
+    private void removeInternal(Long bookId) {
+        Integer doc = docsByBookId.remove(bookId);
+        if (doc != null) {
+            deleted.set(doc);
+            titles[doc] = null;
+            authors[doc] = null;
+            deletedCount++;
+        }
+    }
+
+    /**
+     * Rebuilds the index from the live documents once tombstones make up a
+     * quarter of it.
+     */
+    private void compactIfNeeded() {
+        if (deletedCount <= INITIAL_CAPACITY || deletedCount <= docCount / 4) {
+            return;
+        }
+        long[] liveIds = new long[docCount - deletedCount];
+        String[] liveTitles = new String[liveIds.length];
+        String[] liveAuthors = new String[liveIds.length];
+        int n = 0;
+        for (int doc = deleted.nextClearBit(0); doc < docCount; doc = deleted.nextClearBit(doc + 1)) {
+            liveIds[n] = bookIds[doc];
+            liveTitles[n] = titles[doc];
+            liveAuthors[n] = authors[doc];
+            n++;
+        }
+
+        docsByBookId.clear();
+        postings = new HashMap<>();
+        int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, n)) << 1);
+        bookIds = new long[capacity];
+        titles = new String[capacity];
+        authors = new String[capacity];
+        deleted = new BitSet();
+        docCount = 0;
+        deletedCount = 0;
+        for (int i = 0; i < n; i++) {
+            addInternal(liveIds[i], liveTitles[i], liveAuthors[i]);
+        }
+    }
+
+    private static long[] distinctGrams(String title, String author) {
+        int max = Math.max(0, title.length() - GRAM_LENGTH + 1) + Math.max(0, author.length() - GRAM_LENGTH + 1);
+        long[] grams = new long[max];
+        int n = collectGrams(title, grams, 0);
+        n = collectGrams(author, grams, n);
+        Arrays.sort(grams, 0, n);
+
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    /**
+     * Collects the trigrams of every token; grams never span a space.
+     */
+    private static int collectGrams(String field, long[] grams, int n) {
+        for (int i = 0; i + GRAM_LENGTH <= field.length(); i++) {
+            if (field.charAt(i) != ' ' && field.charAt(i + 1) != ' ' && field.charAt(i + 2) != ' ') {
+                grams[n++] = gramKey(field, i);
+            }
+        }
+        return n;
+    }
+
+    private static long gramKey(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    /**
+     * Growable, sorted list of primitive document numbers.
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.fl4nk3r.luminalib.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.fl4nk3r.luminalib.dto.response.GenreCountResponse;
+import com.fl4nk3r.luminalib.entity.Book;
+
+/**
+ * In-memory genre posting lists.
+ * Each canonical genre key (see {@link TextNormalizer#key(String)}) maps to
+ * the IDs of its books, kept sorted so a page of a genre is a binary search
+ * plus a copy, and the facet counts are simply the list sizes. The first
+ * spelling seen for a key is used as its display name.
+ * Reads share a read lock, writes take the write lock.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Component
+public class GenreIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Posting> postings = new HashMap<>();
+    private final Map<Long, String> genreKeysByBookId = new HashMap<>();
+    private volatile boolean ready;
+
+    /**
+     * Adds a book to its genre, moving it out of its previous genre if needed.
+     *
+     * @param book Book to index
+     */
+    public void index(Book book) {
+        String genreKey = TextNormalizer.key(book.getGenre());
+        lock.writeLock().lock();
+        try {
+            String previousKey = genreKeysByBookId.put(book.getId(), genreKey);
+            if (genreKey.equals(previousKey)) {
+                return;
+            }
+            if (previousKey != null) {
+                removeFrom(previousKey, book.getId());
+            }
+            postings.computeIfAbsent(genreKey, key -> new Posting(book.getGenre())).add(book.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a book from its genre.
+     *
+     * @param bookId ID of the book to remove
+     */
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            String genreKey = genreKeysByBookId.remove(bookId);
+            if (genreKey != null) {
+                removeFrom(genreKey, bookId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops every entry, e.g. before a full rebuild.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            genreKeysByBookId.clear();
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the initial load as finished. Until then callers should fall back
+     * to the database.
+     */
+    public void markReady() {
+        ready = true;
+    }
+
+    /**
+     * @return true once the index holds the full catalog
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the IDs of a genre's books that come after the cursor.
+     *
+     * @param genre Genre in any spelling
+     * @param after Only IDs greater than this are returned
+     * @param limit Maximum number of IDs to return
+     * @return Book IDs in ascending order
+     */
+    public List<Long> idsAfter(String genre, long after, int limit) {
+        lock.readLock().lock();
+        try {
+            Posting posting = postings.get(TextNormalizer.key(genre));
+            if (posting == null) {
+                return List.of();
+            }
+            int from = Arrays.binarySearch(posting.ids, 0, posting.size, after);
+            from = from >= 0 ? from + 1 : -from - 1;
+            int to = (int) Math.min(posting.size, (long) from + limit);
+            List<Long> ids = new ArrayList<>(Math.max(0, to - from));
+            for (int i = from; i < to; i++) {
+                ids.add(posting.ids[i]);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of books per genre, largest genre first
+     */
+    public List<GenreCountResponse> counts() {
+        lock.readLock().lock();
+        try {
+            List<GenreCountResponse> counts = new ArrayList<>(postings.size());
+            postings.forEach((key, posting) -> counts.add(new GenreCountResponse(posting.label, key,
+                    (long) posting.size)));
+            counts.sort(Comparator.comparing(GenreCountResponse::getCount).reversed()
+                    .thenComparing(GenreCountResponse::getKey));
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeFrom(String genreKey, Long bookId) {
+        Posting posting = postings.get(genreKey);
+        if (posting != null && posting.remove(bookId) && posting.size == 0) {
+            postings.remove(genreKey);
+        }
+    }
+
+    /**
+     * Sorted, growable list of primitive book IDs for one genre. New books get
+     * increasing IDs, so inserts are almost always appends.
+     */
+    private static final class Posting {
+        private final String label;
+        private long[] ids = new long[8];
+        private int size;
+
+        Posting(String label) {
+            this.label = label;
+        }
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            int at = size == 0 || ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0 && at < size) {
+                return;
+            }
+            at = at < 0 ? -at - 1 : at;
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+}
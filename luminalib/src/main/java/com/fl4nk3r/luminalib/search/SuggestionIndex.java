@@ -0,0 +1,465 @@
+package com.fl4nk3r.luminalib.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.fl4nk3r.luminalib.dto.response.SuggestionResponse;
+import com.fl4nk3r.luminalib.entity.Book;
+
+/**
+ * In-memory typeahead over book titles and author names.
+ * Every distinct normalized title and author (see {@link TextNormalizer}) is
+ * an entry, weighted by the number of books that share it. Each entry is
+ * inserted into a radix trie once per word start, so "The Great Gatsby" is
+ * found from "the gr", "great" and "gats". Every trie node caches the best
+ * {@link #MAX_SUGGESTIONS} entries of its subtree, so a lookup is a walk down
+ * the prefix plus a copy of that list, whatever the catalog size.
+ * Changes recompute the cached lists along the affected paths only; during
+ * the initial load they are skipped and computed once by
+ * {@link #markReady()}. Reads share a read lock, writes take the write lock.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Component
+public class SuggestionIndex {
+
+    /**
+     * Most suggestions a single lookup can return
+     */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    // Most books first, then the shortest completion, then alphabetical
+    private static final Comparator<Entry> RANKING = Comparator.comparingInt((Entry entry) -> -entry.bookCount)
+            .thenComparingInt(entry -> entry.normalized.length())
+            .thenComparing(entry -> entry.normalized)
+            .thenComparing(entry -> entry.kind);
+
+    /**
+     * What a suggestion completes to
+     */
+    public enum Kind {
+        TITLE,
+        AUTHOR
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Entry[]> entriesByBookId = new HashMap<>();
+    private final Map<String, Entry> titles = new HashMap<>();
+    private final Map<String, Entry> authors = new HashMap<>();
+    private Node root = new Node("");
+    private volatile boolean ready;
+
+    /**
+     * Adds a book's title and author, replacing its previous ones.
+     *
+     * @param book Book to index
+     */
+    public void index(Book book) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(book.getId());
+            Entry title = acquire(titles, Kind.TITLE, book.getTitle());
+            Entry author = acquire(authors, Kind.AUTHOR, book.getAuthor());
+            entriesByBookId.put(book.getId(), new Entry[] { title, author });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a book's title and author.
+     *
+     * @param bookId ID of the book to remove
+     */
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops every entry, e.g. before a full rebuild.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entriesByBookId.clear();
+            titles.clear();
+            authors.clear();
+            root = new Node("");
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Computes the cached suggestion lists for the whole trie and marks the
+     * initial load as finished. Until then lookups return nothing.
+     */
+    public void markReady() {
+        lock.writeLock().lock();
+        try {
+            recomputeSubtree(root);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true once the index holds the full catalog
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the best completions of a prefix.
+     *
+     * @param prefix Text typed so far, matched against the start of any word
+     *               of a title or author name
+     * @param limit  Maximum number of suggestions, at most
+     *               {@link #MAX_SUGGESTIONS}
+     * @return Suggestions, most books first
+     */
+    public List<SuggestionResponse> suggest(String prefix, int limit) {
+        String key = TextNormalizer.normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int depth = 0;
+            while (depth < key.length()) {
+                int index = node.childIndex(key.charAt(depth));
+                if (index < 0) {
+                    return List.of();
+                }
+                Node child = node.children[index];
+                int common = commonPrefix(child.label, key, depth);
+                if (depth + common < key.length() && common < child.label.length()) {
+                    return List.of();
+                }
+                node = child;
+                depth += common;
+            }
+
+            int count = Math.min(Math.min(limit, MAX_SUGGESTIONS), node.top.length);
+            List<SuggestionResponse> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Entry entry = node.top[i];
+                suggestions.add(new SuggestionResponse(entry.text, entry.kind.name(), entry.bookCount));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(Long bookId) {
+        Entry[] previous = entriesByBookId.remove(bookId);
+        if (previous != null) {
+            release(titles, previous[0]);
+            release(authors, previous[1]);
+        }
+    }
+
+    private Entry acquire(Map<String, Entry> entries, Kind kind, String text) {
+        String normalized = TextNormalizer.normalize(text);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        Entry entry = entries.get(normalized);
+        if (entry == null) {
+            entry = new Entry(kind, normalized, text.strip());
+            entries.put(normalized, entry);
+            for (String key : keys(normalized)) {
+                insert(key, entry);
+            }
+        } else {
+            entry.bookCount++;
+            refresh(entry);
+        }
+        return entry;
+    }
+
+    private void release(Map<String, Entry> entries, Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        if (--entry.bookCount > 0) {
+            refresh(entry);
+            return;
+        }
+        entries.remove(entry.normalized);
+        for (String key : keys(entry.normalized)) {
+            delete(key, entry);
+        }
+    }
+
+    /**
+     * Re-ranks an entry whose book count changed
+     */
+    private void refresh(Entry entry) {
+        if (!ready) {
+            return;
+        }
+        for (String key : keys(entry.normalized)) {
+            List<Node> path = new ArrayList<>();
+            if (find(key, path)) {
+                recomputePath(path);
+            }
+        }
+    }
+
+    /**
+     * @return The normalized text from the start of each of its words
+     */
+    private static List<String> keys(String normalized) {
+        List<String> keys = new ArrayList<>(4);
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+
+    private void insert(String key, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int depth = 0;
+        while (depth < key.length()) {
+            int index = node.childIndex(key.charAt(depth));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(depth));
+                node.addChild(leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, depth);
+            if (common < child.label.length()) {
+                // Split the edge where the key leaves it
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.addChild(child);
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            path.add(node);
+            depth += common;
+        }
+        node.addTerminal(entry);
+        if (ready) {
+            recomputePath(path);
+        }
+    }
+
+    private void delete(String key, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        if (!find(key, path)) {
+            return;
+        }
+        int last = path.size() - 1;
+        Node node = path.get(last);
+        node.removeTerminal(entry);
+
+        if (last > 0 && node.terminals.length == 0 && node.children.length == 0) {
+            path.get(last - 1).removeChild(node);
+            path.remove(last--);
+            node = path.get(last);
+        }
+        if (last > 0 && node.terminals.length == 0 && node.children.length == 1) {
+            node.absorbOnlyChild();
+        }
+        if (ready) {
+            recomputePath(path);
+        }
+    }
+
+    /**
+     * Walks down to the node that ends exactly at the key
+     *
+     * @param path Filled with the nodes visited, root first
+     * @return true if such a node exists
+     */
+    private boolean find(String key, List<Node> path) {
+        Node node = root;
+        path.add(node);
+        int depth = 0;
+        while (depth < key.length()) {
+            int index = node.childIndex(key.charAt(depth));
+            if (index < 0) {
+                return false;
+            }
+            node = node.children[index];
+            if (commonPrefix(node.label, key, depth) < node.label.length()) {
+                return false;
+            }
+            path.add(node);
+            depth += node.label.length();
+        }
+        return true;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void recomputePath(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            recomputeTop(path.get(i));
+        }
+    }
+
+    private static void recomputeSubtree(Node node) {
+        for (Node child : node.children) {
+            recomputeSubtree(child);
+        }
+        recomputeTop(node);
+    }
+
+    /**
+     * Rebuilds a node's cached list from its own entries and its children's
+     * lists. An entry can reach a subtree through more than one of its word
+     * starts, so duplicates are skipped.
+     */
+    private static void recomputeTop(Node node) {
+        List<Entry> candidates = new ArrayList<>(Arrays.asList(node.terminals));
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(RANKING);
+
+        List<Entry> top = new ArrayList<>(Math.min(candidates.size(), MAX_SUGGESTIONS));
+        for (Entry candidate : candidates) {
+            if (top.size() == MAX_SUGGESTIONS) {
+                break;
+            }
+            if (top.isEmpty() || top.get(top.size() - 1) != candidate) {
+                top.add(candidate);
+            }
+        }
+        node.top = top.toArray(NO_ENTRIES);
+    }
+
+    /**
+     * A distinct title or author name and the number of books that have it
+     */
+    private static final class Entry {
+        private final Kind kind;
+        private final String normalized;
+        private final String text;
+        private int bookCount = 1;
+
+        Entry(Kind kind, String normalized, String text) {
+            this.kind = kind;
+            this.normalized = normalized;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Radix trie node. Children are kept sorted by the first character of
+     * their label so they can be found by binary search.
+     */
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final char[] NO_KEYS = new char[0];
+
+        private String label;
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] terminals = NO_ENTRIES;
+        private Entry[] top = NO_ENTRIES;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        int childIndex(char c) {
+            return Arrays.binarySearch(keys, c);
+        }
+
+        void addChild(Node child) {
+            int at = -childIndex(child.label.charAt(0)) - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = child.label.charAt(0);
+            newChildren[at] = child;
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        void removeChild(Node child) {
+            int at = childIndex(child.label.charAt(0));
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(keys, at + 1, newKeys, at, keys.length - at - 1);
+            System.arraycopy(children, at + 1, newChildren, at, children.length - at - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        /**
+         * Merges the only child into this node, keeping the trie compressed
+         */
+        void absorbOnlyChild() {
+            Node child = children[0];
+            label = label + child.label;
+            keys = child.keys;
+            children = child.children;
+            terminals = child.terminals;
+            top = child.top;
+        }
+
+        void addTerminal(Entry entry) {
+            terminals = Arrays.copyOf(terminals, terminals.length + 1);
+            terminals[terminals.length - 1] = entry;
+        }
+
+        void removeTerminal(Entry entry) {
+            for (int i = 0; i < terminals.length; i++) {
+                if (terminals[i] == entry) {
+                    Entry[] remaining = new Entry[terminals.length - 1];
+                    System.arraycopy(terminals, 0, remaining, 0, i);
+                    System.arraycopy(terminals, i + 1, remaining, i, terminals.length - i - 1);
+                    terminals = remaining;
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.fl4nk3r.luminalib.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Normalizes free text for the in-memory catalog indexes.
+ * Text is lower-cased, accents are stripped and every run of characters that
+ * is not a letter or digit becomes a single space, so "Sci-Fi", "sci fi" and
+ * "SCI‑FI" all normalize to "sci fi".
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Normalizes the given text.
+     *
+     * @param text Raw text, may be null
+     * @return Normalized text, empty if there is nothing to index
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String source = isAscii(text) ? text : stripAccents(text);
+
+        StringBuilder builder = new StringBuilder(source.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && builder.length() > 0) {
+                    builder.append(' ');
+                }
+                pendingSpace = false;
+                builder.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Builds a canonical lookup key: the normalized text with its tokens
+     * joined by dashes, e.g. "Sci-Fi" and "sci fi" both become "sci-fi".
+     *
+     * @param text Raw text, may be null
+     * @return Canonical key, empty if there is nothing to index
+     */
+    public static String key(String text) {
+        return normalize(text).replace(' ', '-');
+    }
+
+    /**
+     * Splits normalized text into its tokens.
+     *
+     * @param normalized Text returned by {@link #normalize(String)}
+     * @return Tokens, empty if the text is empty
+     */
+    public static String[] tokens(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String stripAccents(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                builder.append(c);
+            }
+        }
+        return builder.toString().toLowerCase(Locale.ROOT);
+    }
+}
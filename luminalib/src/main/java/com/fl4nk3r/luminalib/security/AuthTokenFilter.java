@@ -11,6 +11,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.fl4nk3r.luminalib.service.JwtService;
+import com.fl4nk3r.luminalib.service.TokenVersionService;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -18,12 +19,19 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Authenticates requests that carry a bearer token.
+ * Tokens that embed a role and a token version are trusted once verified, as
+ * long as the version is still current, so no user is loaded per request.
+ * Older tokens fall back to loading the user from the database.
+ */
 @Component
 @RequiredArgsConstructor
 public class AuthTokenFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersions;
 
     @Override
     protected void doFilterInternal(
@@ -34,6 +42,7 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         // Extract the Authorization header
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
+        final JwtService.VerifiedToken token;
         final String userEmail;
 
         // Check if Authorization header exists and starts with "Bearer "
@@ -46,17 +55,26 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            // Extract username/email from the token
-            userEmail = jwtService.extractUsername(jwt);
+            // Verify signature and expiration once, then read the username/email
+            token = jwtService.verify(jwt);
+            userEmail = token.subject();
 
             // If we have a username and no authentication exists in the context
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                // Load user details from the database
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails;
+                if (token.role() != null && token.tokenVersion() != null) {
+                    // Trust the verified claims while the token version is current
+                    userDetails = tokenVersions.isCurrent(userEmail, token.tokenVersion())
+                            ? new TokenUserDetails(userEmail, token.role())
+                            : null;
+                } else {
+                    // Token without claims: load user details from the database
+                    userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                }
 
-                // Validate the token
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                // The token was issued to this user
+                if (userDetails != null && userEmail.equals(userDetails.getUsername())) {
                     // Create authentication token
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
@@ -0,0 +1,109 @@
+package com.fl4nk3r.luminalib.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.fl4nk3r.luminalib.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs a slow password encoder (BCrypt) on a dedicated, bounded pool.
+ * At most {@code threads} hashes are computed at once and at most
+ * {@code queueSize} more wait for a thread; anything beyond that is rejected
+ * at once with a {@link ServiceUnavailableException}, so a login burst can
+ * neither take every CPU nor pile up request threads behind the hashing.
+ * The calling thread waits for its hash without using any CPU.
+ * The hashes waiting and in progress are published as the
+ * {@code luminalib.auth.hashing.queued} and {@code luminalib.auth.hashing.active}
+ * gauges.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    /**
+     * @param delegate          Encoder doing the actual hashing
+     * @param threads           Number of hashing threads
+     * @param queueSize         Number of hashes allowed to wait for a thread
+     * @param retryAfterSeconds Retry-After sent back when the queue is full
+     * @param meterRegistry     Registry of the queued and active hash gauges
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueSize, long retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("luminalib.auth.hashing.queued", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("luminalib.auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes being computed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw ServiceUnavailableException.stackless("Too many sign-ins in progress, please retry shortly",
+                    retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.fl4nk3r.luminalib.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.fl4nk3r.luminalib.service.JwtService.VerifiedToken;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Verifies the HS256 tokens this application issues without going through
+ * the generic jjwt parser.
+ * Only tokens with exactly the header {@code {"alg":"HS256"}} and a flat
+ * payload of strings and integers are handled; for anything else
+ * {@link #verify(String)} returns null and the caller falls back to jjwt.
+ * The signature is checked before the payload is read. The payload is then
+ * scanned in place for {@code sub}, {@code exp}, {@code role}, {@code tv}
+ * and {@code jti}, without building a claims map.
+ * The Mac and the decoding buffers are reused: they are kept in a small
+ * striped pool rather than in thread locals, so that request threads that
+ * live for a single request (virtual threads) share them too. Apart from
+ * the returned token and its strings, a verification allocates nothing.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public class Hs256TokenVerifier {
+
+    /** Base64url of {"alg":"HS256"}, the header jjwt writes for our tokens */
+    private static final String HEADER = "eyJhbGciOiJIUzI1NiJ9";
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final byte[] SUB = ascii("sub");
+    private static final byte[] EXP = ascii("exp");
+    private static final byte[] ROLE = ascii("role");
+    private static final byte[] TV = ascii("tv");
+    private static final byte[] JTI = ascii("jti");
+    private static final byte[] NBF = ascii("nbf");
+    private static final byte[] BASE64URL = new byte[128];
+
+    static {
+        Arrays.fill(BASE64URL, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final SecretKeySpec key;
+    private final AtomicReferenceArray<Scratch> pool;
+    private final int mask;
+
+    /**
+     * @param secret HMAC-SHA256 key the tokens are signed with
+     */
+    public Hs256TokenVerifier(byte[] secret) {
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1) << 1;
+        this.pool = new AtomicReferenceArray<>(stripes);
+        this.mask = stripes - 1;
+        this.pool.set(0, new Scratch(key));
+    }
+
+    /**
+     * Verify the signature and expiration of a token
+     * @param token JWT token
+     * @return The token's claims, or null if the token is not in the form
+     *         this verifier handles
+     * @throws JwtException if the token is badly signed, malformed or expired
+     */
+    public VerifiedToken verify(String token) {
+        int length = token.length();
+        int firstDot = HEADER.length();
+        if (length <= firstDot + 1 || !token.startsWith(HEADER) || token.charAt(firstDot) != '.') {
+            return null;
+        }
+        int secondDot = token.indexOf('.', firstDot + 1);
+        if (secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            return null;
+        }
+
+        int stripe = (int) Thread.currentThread().threadId() & mask;
+        Scratch scratch = pool.getAndSet(stripe, null);
+        if (scratch == null) {
+            scratch = new Scratch(key);
+        }
+        try {
+            return verify(token, secondDot, scratch);
+        } finally {
+            pool.lazySet(stripe, scratch);
+        }
+    }
+
+    private VerifiedToken verify(String token, int secondDot, Scratch scratch) {
+        byte[] signed = scratch.signed(secondDot);
+        for (int i = 0; i < secondDot; i++) {
+            char c = token.charAt(i);
+            if (c > 127) {
+                throw new MalformedJwtException("JWT contains non-ASCII characters");
+            }
+            signed[i] = (byte) c;
+        }
+        if (decode(token, secondDot + 1, token.length(), scratch.signature) != SIGNATURE_LENGTH) {
+            throw new SignatureException("JWT signature does not match");
+        }
+        try {
+            scratch.mac.update(signed, 0, secondDot);
+            scratch.mac.doFinal(scratch.expected, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        if (!MessageDigest.isEqual(scratch.expected, scratch.signature)) {
+            throw new SignatureException("JWT signature does not match");
+        }
+
+        byte[] payload = scratch.payload(secondDot - HEADER.length() - 1);
+        int payloadLength = decode(token, HEADER.length() + 1, secondDot, payload);
+        if (payloadLength < 0) {
+            throw new MalformedJwtException("JWT payload is not valid base64url");
+        }
+        return readClaims(payload, payloadLength);
+    }
+
+    /**
+     * Scan a flat JSON object for the claims we use, returning null for
+     * anything the scan does not support (nested values, escapes, fractions,
+     * not-before)
+     */
+    private static VerifiedToken readClaims(byte[] json, int length) {
+        String subject = null;
+        String role = null;
+        String id = null;
+        Long tokenVersion = null;
+        long exp = Long.MIN_VALUE;
+
+        int i = skipSpace(json, 0, length);
+        if (i >= length || json[i] != '{') {
+            throw new MalformedJwtException("JWT payload is not a JSON object");
+        }
+        i = skipSpace(json, i + 1, length);
+        if (i < length && json[i] == '}') {
+            i++;
+        } else {
+            while (true) {
+                if (i >= length || json[i] != '"') {
+                    return null;
+                }
+                int keyStart = i + 1;
+                int keyEnd = endOfString(json, keyStart, length);
+                if (keyEnd < 0) {
+                    return null;
+                }
+                i = skipSpace(json, keyEnd + 1, length);
+                if (i >= length || json[i] != ':') {
+                    return null;
+                }
+                i = skipSpace(json, i + 1, length);
+                if (i >= length) {
+                    return null;
+                }
+
+                byte first = json[i];
+                int valueEnd;
+                if (first == '"') {
+                    valueEnd = endOfString(json, i + 1, length);
+                    if (valueEnd < 0) {
+                        return null;
+                    }
+                    if (is(json, keyStart, keyEnd, SUB)) {
+                        subject = new String(json, i + 1, valueEnd - i - 1, StandardCharsets.UTF_8);
+                    } else if (is(json, keyStart, keyEnd, ROLE)) {
+                        role = new String(json, i + 1, valueEnd - i - 1, StandardCharsets.UTF_8);
+                    } else if (is(json, keyStart, keyEnd, JTI)) {
+                        id = new String(json, i + 1, valueEnd - i - 1, StandardCharsets.UTF_8);
+                    } else if (isNumericClaim(json, keyStart, keyEnd)) {
+                        return null;
+                    }
+                    valueEnd++;
+                } else if (first == '-' || (first >= '0' && first <= '9')) {
+                    int digitsStart = first == '-' ? i + 1 : i;
+                    valueEnd = digitsStart;
+                    long value = 0;
+                    while (valueEnd < length && json[valueEnd] >= '0' && json[valueEnd] <= '9') {
+                        if (valueEnd - digitsStart >= 18) {
+                            return null;
+                        }
+                        value = value * 10 + (json[valueEnd++] - '0');
+                    }
+                    if (valueEnd == digitsStart || (valueEnd < length
+                            && (json[valueEnd] == '.' || json[valueEnd] == 'e' || json[valueEnd] == 'E'))) {
+                        return null;
+                    }
+                    value = first == '-' ? -value : value;
+                    if (is(json, keyStart, keyEnd, EXP)) {
+                        exp = value;
+                    } else if (is(json, keyStart, keyEnd, TV)) {
+                        tokenVersion = value;
+                    } else if (isStringClaim(json, keyStart, keyEnd) || is(json, keyStart, keyEnd, NBF)) {
+                        return null;
+                    }
+                } else if (literal(json, i, length, "true") || literal(json, i, length, "null")
+                        || literal(json, i, length, "false")) {
+                    valueEnd = i + (first == 'f' ? 5 : 4);
+                    if (isStringClaim(json, keyStart, keyEnd) || isNumericClaim(json, keyStart, keyEnd)) {
+                        return null;
+                    }
+                } else {
+                    return null;
+                }
+
+                i = skipSpace(json, valueEnd, length);
+                if (i < length && json[i] == ',') {
+                    i = skipSpace(json, i + 1, length);
+                } else if (i < length && json[i] == '}') {
+                    i++;
+                    break;
+                } else {
+                    return null;
+                }
+            }
+        }
+        if (skipSpace(json, i, length) != length) {
+            return null;
+        }
+
+        Date expiresAt = null;
+        if (exp != Long.MIN_VALUE) {
+            if (exp > Long.MAX_VALUE / 1000 || exp < Long.MIN_VALUE / 1000) {
+                return null;
+            }
+            expiresAt = new Date(exp * 1000);
+            if (System.currentTimeMillis() > expiresAt.getTime()) {
+                throw new JwtException("JWT expired at " + expiresAt.toInstant());
+            }
+        }
+        return new VerifiedToken(subject, expiresAt, role, tokenVersion, id);
+    }
+
+    /**
+     * Decode base64url without padding into the buffer.
+     * Only the canonical encoding is accepted: the bits of the last character
+     * that fall beyond the final byte must be zero, so that no two strings
+     * decode to the same bytes.
+     * @return Number of bytes written, -1 if the input is not valid canonical
+     *         base64url
+     */
+    private static int decode(String text, int from, int to, byte[] out) {
+        int length = to - from;
+        if (length % 4 == 1 || (length / 4) * 3 + Math.max(0, length % 4 - 1) > out.length) {
+            return -1;
+        }
+        int written = 0;
+        int bits = 0;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            int value = c < 128 ? BASE64URL[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            bits = (bits << 6) | value;
+            if (++count == 4) {
+                out[written++] = (byte) (bits >> 16);
+                out[written++] = (byte) (bits >> 8);
+                out[written++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 3) {
+            if ((bits & 0x3) != 0) {
+                return -1;
+            }
+            out[written++] = (byte) (bits >> 10);
+            out[written++] = (byte) (bits >> 2);
+        } else if (count == 2) {
+            if ((bits & 0xF) != 0) {
+                return -1;
+            }
+            out[written++] = (byte) (bits >> 4);
+        }
+        return written;
+    }
+
+    /**
+     * @return Index of the closing quote, -1 if the string has escapes or is
+     *         not terminated
+     */
+    private static int endOfString(byte[] json, int from, int length) {
+        for (int i = from; i < length; i++) {
+            if (json[i] == '"') {
+                return i;
+            }
+            if (json[i] == '\\') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipSpace(byte[] json, int from, int length) {
+        int i = from;
+        while (i < length && (json[i] == ' ' || json[i] == '\t' || json[i] == '\n' || json[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isStringClaim(byte[] json, int from, int to) {
+        return is(json, from, to, SUB) || is(json, from, to, ROLE) || is(json, from, to, JTI);
+    }
+
+    private static boolean isNumericClaim(byte[] json, int from, int to) {
+        return is(json, from, to, EXP) || is(json, from, to, TV) || is(json, from, to, NBF);
+    }
+
+    private static boolean is(byte[] json, int from, int to, byte[] name) {
+        return Arrays.equals(json, from, to, name, 0, name.length);
+    }
+
+    private static boolean literal(byte[] json, int from, int length, String literal) {
+        if (from + literal.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (json[from + i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Mac and buffers used by one verification at a time
+     */
+    private static final class Scratch {
+        final Mac mac;
+        final byte[] signature = new byte[SIGNATURE_LENGTH];
+        final byte[] expected = new byte[SIGNATURE_LENGTH];
+        byte[] signed = new byte[512];
+        byte[] payload = new byte[384];
+
+        Scratch(SecretKeySpec key) {
+            try {
+                mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+        }
+
+        byte[] signed(int length) {
+            if (signed.length < length) {
+                signed = new byte[Math.max(length, signed.length * 2)];
+            }
+            return signed;
+        }
+
+        byte[] payload(int base64Length) {
+            int length = base64Length / 4 * 3 + 2;
+            if (payload.length < length) {
+                payload = new byte[Math.max(length, payload.length * 2)];
+            }
+            return payload;
+        }
+    }
+}
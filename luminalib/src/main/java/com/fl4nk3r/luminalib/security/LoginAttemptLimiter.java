@@ -0,0 +1,202 @@
+package com.fl4nk3r.luminalib.security;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fl4nk3r.luminalib.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sheds login attempts before any password is hashed.
+ * Each email and each client address has a token bucket: a burst of attempts
+ * is allowed, then one more per interval. Registrations, which hash a
+ * password too, take from the address's bucket. The bucket is kept as a single
+ * "theoretical arrival time" (GCRA) updated by compare-and-set, so checking
+ * it takes no lock and allocates nothing.
+ * On top of that, consecutive failed logins lock an email out for a time
+ * that doubles with every further failure, up to a maximum; a successful
+ * login clears the count.
+ * State lives in bounded Caffeine caches and is dropped once a key has been
+ * idle for longer than any bucket or lockout lasts. Rejections are counted
+ * in the {@code luminalib.auth.login.rejected} meter, tagged by reason.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private final RateLimit emailLimit;
+    private final RateLimit addressLimit;
+    private final int lockoutThreshold;
+    private final long lockoutBaseNanos;
+    private final long lockoutMaxNanos;
+    private final Cache<String, Attempts> emails;
+    private final Cache<String, Attempts> addresses;
+    private final Counter rejectedByEmail;
+    private final Counter rejectedByAddress;
+    private final Counter rejectedByLockout;
+
+    public LoginAttemptLimiter(
+            @Value("${luminalib.auth.login-limit.email-burst:5}") int emailBurst,
+            @Value("${luminalib.auth.login-limit.email-interval:1m}") Duration emailInterval,
+            @Value("${luminalib.auth.login-limit.address-burst:20}") int addressBurst,
+            @Value("${luminalib.auth.login-limit.address-interval:3s}") Duration addressInterval,
+            @Value("${luminalib.auth.login-limit.lockout-threshold:5}") int lockoutThreshold,
+            @Value("${luminalib.auth.login-limit.lockout-base:30s}") Duration lockoutBase,
+            @Value("${luminalib.auth.login-limit.lockout-max:1h}") Duration lockoutMax,
+            @Value("${luminalib.auth.login-limit.max-tracked:100000}") long maxTracked,
+            MeterRegistry meterRegistry) {
+        this.emailLimit = new RateLimit(emailBurst, emailInterval);
+        this.addressLimit = new RateLimit(addressBurst, addressInterval);
+        this.lockoutThreshold = lockoutThreshold;
+        this.lockoutBaseNanos = lockoutBase.toNanos();
+        this.lockoutMaxNanos = lockoutMax.toNanos();
+        this.emails = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(Duration.ofNanos(Math.max(emailLimit.windowNanos(), lockoutMaxNanos)))
+                .build();
+        this.addresses = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(Duration.ofNanos(addressLimit.windowNanos()))
+                .build();
+        this.rejectedByEmail = rejected(meterRegistry, "email");
+        this.rejectedByAddress = rejected(meterRegistry, "address");
+        this.rejectedByLockout = rejected(meterRegistry, "lockout");
+    }
+
+    /**
+     * Take one login attempt from the buckets of the email and the address
+     * @param email   Email the client is logging in as
+     * @param address Client address
+     * @throws TooManyRequestsException if the email is locked out or either
+     *                                  bucket is empty
+     */
+    public void acquire(String email, String address) {
+        long now = System.nanoTime();
+        Attempts byEmail = emails.get(normalize(email), key -> new Attempts(now));
+        long locked = byEmail.lockedUntil - now;
+        if (locked > 0) {
+            rejectedByLockout.increment();
+            throw TooManyRequestsException.stackless("Too many failed logins for this account, please retry later",
+                    seconds(locked));
+        }
+        acquireAddress(address, now);
+        long wait = emailLimit.take(byEmail, now);
+        if (wait > 0) {
+            rejectedByEmail.increment();
+            throw TooManyRequestsException.stackless("Too many login attempts for this account, please retry later",
+                    seconds(wait));
+        }
+    }
+
+    /**
+     * Take one registration attempt from the bucket of the address
+     * @param address Client address
+     * @throws TooManyRequestsException if the address's bucket is empty
+     */
+    public void acquireRegistration(String address) {
+        acquireAddress(address, System.nanoTime());
+    }
+
+    private void acquireAddress(String address, long now) {
+        long wait = addressLimit.take(addresses.get(address, key -> new Attempts(now)), now);
+        if (wait > 0) {
+            rejectedByAddress.increment();
+            throw TooManyRequestsException.stackless("Too many login attempts from this address, please retry later",
+                    seconds(wait));
+        }
+    }
+
+    /**
+     * Record a failed login, locking the email out once failures reach the
+     * threshold
+     * @param email Email the client tried to log in as
+     */
+    public void recordFailure(String email) {
+        long now = System.nanoTime();
+        Attempts byEmail = emails.get(normalize(email), key -> new Attempts(now));
+        int beyond = byEmail.failures.incrementAndGet() - lockoutThreshold;
+        if (beyond >= 0) {
+            long lockout = beyond >= 62 ? lockoutMaxNanos : lockoutBaseNanos << beyond;
+            byEmail.lockedUntil = now + (lockout <= 0 || lockout > lockoutMaxNanos ? lockoutMaxNanos : lockout);
+        }
+    }
+
+    /**
+     * Record a successful login, clearing the email's failures
+     * @param email Email the client logged in as
+     */
+    public void recordSuccess(String email) {
+        Attempts byEmail = emails.getIfPresent(normalize(email));
+        if (byEmail != null) {
+            byEmail.failures.set(0);
+            byEmail.lockedUntil = System.nanoTime();
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("luminalib.auth.login.rejected")
+                .description("Login attempts rejected before authentication")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Attempt state of one email or address
+     */
+    private static final class Attempts {
+        /** Time at which the bucket would be full again, in System.nanoTime */
+        final AtomicLong arrival;
+        final AtomicInteger failures = new AtomicInteger();
+        volatile long lockedUntil;
+
+        Attempts(long now) {
+            arrival = new AtomicLong(now);
+            lockedUntil = now;
+        }
+    }
+
+    /**
+     * Token bucket holding {@code burst} attempts and refilled with one every
+     * {@code interval}
+     */
+    private record RateLimit(long intervalNanos, long windowNanos) {
+
+        RateLimit(int burst, Duration interval) {
+            this(interval.toNanos(), interval.toNanos() * burst);
+        }
+
+        /**
+         * @return 0 if an attempt was taken, otherwise nanoseconds until the
+         *         next one is available
+         */
+        long take(Attempts attempts, long now) {
+            while (true) {
+                long arrival = attempts.arrival.get();
+                long next = Math.max(arrival - now, 0) + intervalNanos;
+                if (next > windowNanos) {
+                    return next - windowNanos;
+                }
+                if (attempts.arrival.compareAndSet(arrival, now + next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
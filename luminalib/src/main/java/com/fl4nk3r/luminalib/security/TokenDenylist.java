@@ -0,0 +1,113 @@
+package com.fl4nk3r.luminalib.security;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Revoked tokens that have not expired yet.
+ * Tokens are filed in buckets by expiration time, one bucket per
+ * jwt.denylist.bucket-width. A lookup only visits the bucket of the token's
+ * own expiration: a small Bloom filter answers most lookups, and only a
+ * possible hit is confirmed against the bucket's exact set. Once every token
+ * in a bucket has expired the whole bucket is dropped, so memory is bounded by
+ * the number of live revoked tokens.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Component
+public class TokenDenylist {
+
+    private static final int BLOOM_BITS = 1 << 14;
+    private static final int BLOOM_HASHES = 3;
+
+    private final long bucketMillis;
+    private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public TokenDenylist(@Value("${jwt.denylist.bucket-width:1m}") Duration bucketWidth) {
+        this.bucketMillis = bucketWidth.toMillis();
+    }
+
+    /**
+     * Revoke a token until it expires
+     *
+     * @param digest    Digest of the token's id
+     * @param expiresAt Expiration of the token
+     */
+    public void revoke(TokenDigest digest, Date expiresAt) {
+        long now = System.currentTimeMillis();
+        if (expiresAt.getTime() > now) {
+            buckets.computeIfAbsent(bucketOf(expiresAt), index -> new Bucket()).add(digest);
+        }
+        buckets.keySet().removeIf(index -> (index + 1) * bucketMillis <= now);
+    }
+
+    /**
+     * @return true if no token is revoked, so that callers can skip computing
+     *         the digest to look up
+     */
+    public boolean isEmpty() {
+        return buckets.isEmpty();
+    }
+
+    /**
+     * @param digest    Digest of a verified token's id
+     * @param expiresAt Expiration of the token
+     * @return true if the token has been revoked
+     */
+    public boolean isRevoked(TokenDigest digest, Date expiresAt) {
+        if (buckets.isEmpty()) {
+            return false;
+        }
+        Bucket bucket = buckets.get(bucketOf(expiresAt));
+        return bucket != null && bucket.contains(digest);
+    }
+
+    private long bucketOf(Date expiresAt) {
+        return expiresAt.getTime() / bucketMillis;
+    }
+
+    /**
+     * Tokens expiring within one bucket width
+     */
+    private static final class Bucket {
+        private final AtomicLongArray bloom = new AtomicLongArray(BLOOM_BITS / 64);
+        private final Set<TokenDigest> digests = ConcurrentHashMap.newKeySet();
+
+        void add(TokenDigest digest) {
+            // Into the exact set first, so a Bloom hit always finds it there
+            digests.add(digest);
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = bit(digest, i);
+                long mask = 1L << bit;
+                bloom.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+            }
+        }
+
+        boolean contains(TokenDigest digest) {
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = bit(digest, i);
+                if ((bloom.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return digests.contains(digest);
+        }
+
+        /**
+         * i-th Bloom position by double hashing; the digest is already
+         * uniformly distributed
+         */
+        private static int bit(TokenDigest digest, int i) {
+            return (int) (digest.low() + i * digest.high()) & (BLOOM_BITS - 1);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.fl4nk3r.luminalib.security;
+
+/**
+ * Identifies a JWT by the first 128 bits of a SHA-256 digest, so caches and
+ * the denylist never hold bearer tokens themselves: the verified-token cache
+ * digests the token string, the denylist the token's id (see JwtService).
+ *
+ * @param high First 64 bits of the digest
+ * @param low  Next 64 bits of the digest
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public record TokenDigest(long high, long low) {
+}
@@ -0,0 +1,36 @@
+package com.fl4nk3r.luminalib.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Principal of a request authenticated from the claims of a verified JWT.
+ * It holds what the token carries, the email and the role, and no password.
+ *
+ * @param username Email the token was issued to
+ * @param role     Role carried by the token, e.g. ROLE_USER
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public record TokenUserDetails(String username, String role) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+}
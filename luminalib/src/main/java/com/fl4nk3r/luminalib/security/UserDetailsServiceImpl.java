@@ -4,6 +4,7 @@ import com.fl4nk3r.luminalib.entity.User;
 import com.fl4nk3r.luminalib.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,7 +12,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     
     private final UserRepository userRepository;
 
@@ -31,4 +32,22 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         
         return user;
     }
+
+    /**
+     * Stores a password rehashed with the current encoder settings
+     * This method is called by Spring Security after a successful login when
+     * the stored hash is weaker than the configured one
+     * @param user The authenticated user
+     * @param newPassword The new password hash
+     * @return The user carrying the new hash
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        if (user instanceof User entity) {
+            entity.setPassword(newPassword);
+        }
+        return user;
+    }
 }
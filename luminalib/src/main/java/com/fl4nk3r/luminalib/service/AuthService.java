@@ -2,18 +2,22 @@ package com.fl4nk3r.luminalib.service;
 
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.fl4nk3r.luminalib.dto.request.LoginRequest;
 import com.fl4nk3r.luminalib.dto.request.RegisterRequest;
 import com.fl4nk3r.luminalib.dto.response.AuthResponse;
 import com.fl4nk3r.luminalib.entity.User;
 import com.fl4nk3r.luminalib.exception.BadRequestException;
-import com.fl4nk3r.luminalib.exception.ResourceNotFoundException;
+import com.fl4nk3r.luminalib.exception.TooManyRequestsException;
+import com.fl4nk3r.luminalib.exception.UnauthorizedException;
 import com.fl4nk3r.luminalib.repository.UserRepository;
+import com.fl4nk3r.luminalib.security.LoginAttemptLimiter;
 
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -24,18 +28,28 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final LoginAttemptLimiter loginAttemptLimiter;
 
     /**
      * Registers a new user and returns a JWT token
+     * Registrations take from the client address's login bucket, and a taken
+     * email is rejected before the password is hashed, so neither replays
+     * nor duplicates can fill the BCrypt pool's queue. Each query runs in the
+     * repository's own transaction, so no connection is held while the
+     * password is hashed (spring.jpa.open-in-view is off).
      * 
-     * @param request Registration details
+     * @param request       Registration details
+     * @param clientAddress Address the request came from
      * @return AuthResponse containing JWT token
+     * @throws TooManyRequestsException if the address has made too many
+     *                                  attempts
      */
-    @Transactional
-    public AuthResponse register(RegisterRequest request) {
+    public AuthResponse register(RegisterRequest request, String clientAddress) {
+        loginAttemptLimiter.acquireRegistration(clientAddress);
+
         // Check if email already exists
         if (userRepository.existsByEmail(request.getEmail())) {
-            throw new BadRequestException("Email already exists: " + request.getEmail());
+            throw BadRequestException.stackless("Email already exists: " + request.getEmail());
         }
 
         User user = User.builder()
@@ -54,21 +68,50 @@ public class AuthService {
 
     /**
      * Authenticates user and returns a JWT token
+     * Attempts over the per-email or per-address limit are rejected before
+     * the password is checked
      * 
-     * @param request Login credentials
+     * @param request       Login credentials
+     * @param clientAddress Address the request came from
      * @return AuthResponse containing JWT token
+     * @throws TooManyRequestsException if the email or address has made too
+     *                                  many attempts
      */
-    public AuthResponse login(LoginRequest request) {
-        // This will throw an exception if authentication fails
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()));
+    public AuthResponse login(LoginRequest request, String clientAddress) {
+        loginAttemptLimiter.acquire(request.getEmail(), clientAddress);
+
+        // This will throw an exception if authentication fails; on success the
+        // principal is the user loaded to check the password
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            request.getEmail(),
+                            request.getPassword()));
+        } catch (AuthenticationException e) {
+            loginAttemptLimiter.recordFailure(request.getEmail());
+            throw e;
+        }
+        loginAttemptLimiter.recordSuccess(request.getEmail());
 
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + request.getEmail()));
+        User user = (User) authentication.getPrincipal();
 
         String token = jwtService.generateToken(user);
         return new AuthResponse(token);
     }
+
+    /**
+     * Logs out by revoking the given token until it expires
+     * 
+     * @param token JWT token to revoke
+     * @throws UnauthorizedException if the token is invalid, expired or already
+     *                               revoked
+     */
+    public void logout(String token) {
+        try {
+            jwtService.revoke(token);
+        } catch (JwtException e) {
+            throw UnauthorizedException.stackless("Invalid or expired token");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.fl4nk3r.luminalib.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import com.fl4nk3r.luminalib.entity.Book;
+import com.fl4nk3r.luminalib.exception.BadRequestException;
+
+import lombok.RequiredArgsConstructor;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Full catalog export as NDJSON or CSV.
+ * Books are written one at a time as they come off the forward-only cursor of
+ * {@link BookService#streamBooks(long, java.util.function.Consumer)}, so memory
+ * use does not depend on the catalog size. Rows are in id order, which lets a
+ * client resume an interrupted export after the last id it received.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Service
+@RequiredArgsConstructor
+public class BookExportService {
+
+    private static final String CSV_HEADER = "id,title,author,isbn,publicationYear,genre,totalCopies,availableCopies";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Export file formats
+     */
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @param name Format name, case-insensitive
+         * @return The matching format
+         * @throws BadRequestException if the format is not supported
+         */
+        public static Format of(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw BadRequestException.stackless("Unsupported export format: " + name);
+            }
+        }
+    }
+
+    /**
+     * Write every book after the given id to the output stream, then close it
+     *
+     * @param out    Destination, closed once the export is complete
+     * @param format Export format
+     * @param after  Id of the last book already exported, 0 for a full export
+     * @throws IOException if writing fails
+     */
+    public void export(OutputStream out, Format format, long after) throws IOException {
+        if (format == Format.CSV) {
+            exportCsv(out, after);
+        } else {
+            exportNdjson(out, after);
+        }
+    }
+
+    private void exportNdjson(OutputStream out, long after) {
+        // One document per line: no separator between root values, a newline after each
+        try (JsonGenerator generator = objectMapper.writer().withRootValueSeparator("").createGenerator(out)) {
+            bookService.streamBooks(after, book -> {
+                generator.writePOJO(book);
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    private void exportCsv(OutputStream out, long after) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+            StringBuilder line = new StringBuilder(256);
+            bookService.streamBooks(after, book -> {
+                line.setLength(0);
+                appendCsvRow(line, book);
+                try {
+                    writer.append(line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void appendCsvRow(StringBuilder line, Book book) {
+        line.append(book.getId()).append(',');
+        appendCsvField(line, book.getTitle());
+        line.append(',');
+        appendCsvField(line, book.getAuthor());
+        line.append(',');
+        appendCsvField(line, book.getIsbn());
+        line.append(',').append(book.getPublicationYear()).append(',');
+        appendCsvField(line, book.getGenre());
+        line.append(',').append(book.getTotalCopies())
+                .append(',').append(book.getAvailableCopies())
+                .append("\r\n");
+    }
+
+    /**
+     * Appends a text field, quoted as per RFC 4180 when it contains a comma,
+     * quote or line break
+     */
+    private static void appendCsvField(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
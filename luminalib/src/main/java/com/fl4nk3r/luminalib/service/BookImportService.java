@@ -0,0 +1,159 @@
+package com.fl4nk3r.luminalib.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.fl4nk3r.luminalib.dto.response.BookImportError;
+import com.fl4nk3r.luminalib.dto.response.BookImportResponse;
+import com.fl4nk3r.luminalib.entity.Book;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Bulk book import.
+ * The request body is read one row at a time, either as a JSON array or as
+ * NDJSON (one book per line), so memory is bounded by the chunk size rather
+ * than the size of the load. Rows that pass bean validation are handed to
+ * {@link BookService#importBooks(Map)} in chunks of
+ * luminalib.books.import-batch-size, each chunk in its own transaction. Bad
+ * rows are reported in the response and never abort the rest of the load.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Service
+@RequiredArgsConstructor
+public class BookImportService {
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${luminalib.books.import-batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Import books from a JSON array or NDJSON stream
+     *
+     * @param body   Request body
+     * @param ndjson true if the body holds one JSON book per line
+     * @return Number of rows read and imported, plus the per-row errors
+     * @throws IOException if the body cannot be read
+     */
+    public BookImportResponse importBooks(InputStream body, boolean ndjson) throws IOException {
+        Import run = new Import();
+        if (ndjson) {
+            readNdjson(body, run);
+        } else {
+            readJsonArray(body, run);
+        }
+        run.flush();
+        run.errors.sort(Comparator.comparingInt(BookImportError::getRow));
+
+        return BookImportResponse.builder()
+                .received(run.received)
+                .imported(run.imported)
+                .errors(run.errors)
+                .build();
+    }
+
+    private void readNdjson(InputStream body, Import run) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int row = ++run.received;
+            try {
+                run.add(row, objectMapper.readValue(line, Book.class));
+            } catch (JacksonException e) {
+                run.errors.add(new BookImportError(row, null, "Malformed row: " + e.getOriginalMessage()));
+            }
+        }
+    }
+
+    private void readJsonArray(InputStream body, Import run) {
+        try (MappingIterator<Book> books = objectMapper.readerFor(Book.class).readValues(body)) {
+            while (books.hasNextValue()) {
+                int row = ++run.received;
+                try {
+                    run.add(row, books.nextValue());
+                } catch (JacksonException e) {
+                    // The parser cannot be trusted past a broken row, stop here
+                    run.errors.add(new BookImportError(row, null,
+                            "Malformed row, import stopped: " + e.getOriginalMessage()));
+                    return;
+                }
+            }
+        } catch (JacksonException e) {
+            run.errors.add(new BookImportError(run.received + 1, null,
+                    "Malformed input, import stopped: " + e.getOriginalMessage()));
+        }
+    }
+
+    /**
+     * State of one import: the chunk being filled and the running totals
+     */
+    private final class Import {
+        private Map<Integer, Book> chunk = new LinkedHashMap<>();
+        private final List<BookImportError> errors = new ArrayList<>();
+        private int received;
+        private int imported;
+
+        void add(int row, Book book) {
+            Set<ConstraintViolation<Book>> violations = validator.validate(book);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                errors.add(new BookImportError(row, book.getIsbn(), "Validation error: " + message));
+                return;
+            }
+
+            chunk.put(row, book);
+            if (chunk.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Map<Integer, Book> rows = chunk;
+            chunk = new LinkedHashMap<>();
+            try {
+                List<BookImportError> rejected = bookService.importBooks(rows);
+                errors.addAll(rejected);
+                imported += rows.size() - rejected.size();
+            } catch (DataAccessException e) {
+                // The whole chunk was rolled back
+                String message = "Chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                rows.forEach((row, book) -> errors.add(new BookImportError(row, book.getIsbn(), message)));
+            }
+        }
+    }
+}
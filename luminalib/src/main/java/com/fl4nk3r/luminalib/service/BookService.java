@@ -1,42 +1,210 @@
 package com.fl4nk3r.luminalib.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.fl4nk3r.luminalib.config.CacheConfig;
+import com.fl4nk3r.luminalib.dto.response.BookImportError;
+import com.fl4nk3r.luminalib.dto.response.BookSummaryResponse;
+import com.fl4nk3r.luminalib.dto.response.CursorPageResponse;
+import com.fl4nk3r.luminalib.dto.response.GenreCountResponse;
+import com.fl4nk3r.luminalib.dto.response.SuggestionResponse;
 import com.fl4nk3r.luminalib.entity.Book;
+import com.fl4nk3r.luminalib.event.BookAvailabilityChangedEvent;
+import com.fl4nk3r.luminalib.event.BookChangedEvent;
 import com.fl4nk3r.luminalib.exception.BadRequestException;
 import com.fl4nk3r.luminalib.exception.ResourceNotFoundException;
+import com.fl4nk3r.luminalib.exception.ServiceUnavailableException;
 import com.fl4nk3r.luminalib.repository.BookRepository;
+import com.fl4nk3r.luminalib.repository.LoanRepository;
+import com.fl4nk3r.luminalib.search.BookSearchIndex;
+import com.fl4nk3r.luminalib.search.GenreIndex;
+import com.fl4nk3r.luminalib.search.SuggestionIndex;
+import com.fl4nk3r.luminalib.search.TextNormalizer;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class BookService {
 
+    /**
+     * Seconds a client is asked to wait while the search index loads
+     */
+    private static final long INDEX_RETRY_AFTER_SECONDS = 5;
+
     private final BookRepository bookRepository;
+    private final LoanRepository loanRepository;
+    private final EntityManager entityManager;
+    private final BookSearchIndex searchIndex;
+    private final GenreIndex genreIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${luminalib.books.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${luminalib.books.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${luminalib.search.max-results:100}")
+    private int maxSearchResults;
+
+    /**
+     * Get a page of books using keyset pagination on the book id.
+     * Rows are selected straight into summaries, no entity is loaded.
+     * 
+     * @param after Id of the last book from the previous page, null for the
+     *              first page
+     * @param size  Requested page size, null for the configured default
+     * @return Page of books with the cursor for the next page
+     * @throws BadRequestException if the cursor or page size is invalid
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<BookSummaryResponse> getBooksPage(Long after, Integer size) {
+        int pageSize = resolvePageSize(after, size);
+
+        // Fetch one extra row to know whether another page exists
+        List<BookSummaryResponse> books = bookRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after,
+                Limit.of(pageSize + 1));
+        return toPage(books, pageSize);
+    }
+
+    /**
+     * Validates the paging parameters
+     * 
+     * @return The effective page size
+     * @throws BadRequestException if the cursor or page size is invalid
+     */
+    private int resolvePageSize(Long after, Integer size) {
+        if (after != null && after < 0) {
+            throw BadRequestException.stackless("Cursor cannot be negative");
+        }
+        if (size != null && size < 1) {
+            throw BadRequestException.stackless("Page size must be at least 1");
+        }
+        return size == null ? defaultPageSize : Math.min(size, maxPageSize);
+    }
+
+    /**
+     * Builds a page from up to pageSize + 1 books ordered by id; the extra
+     * book only signals that a next page exists
+     */
+    private CursorPageResponse<BookSummaryResponse> toPage(List<BookSummaryResponse> books, int pageSize) {
+        Long nextCursor = null;
+        if (books.size() > pageSize) {
+            books = books.subList(0, pageSize);
+            nextCursor = books.get(pageSize - 1).id();
+        }
+
+        return CursorPageResponse.<BookSummaryResponse>builder()
+                .content(books)
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Stream every book in id order to the given consumer.
+     * Rows are read from a forward-only cursor and each book is detached once
+     * consumed, so memory stays flat regardless of the catalog size.
+     * 
+     * @param consumer Callback invoked once per book
+     */
+    @Transactional(readOnly = true)
+    public void streamAllBooks(Consumer<Book> consumer) {
+        streamBooks(0L, consumer);
+    }
+
+    /**
+     * Stream the books that follow the given id, in id order, to the given
+     * consumer. Works like {@link #streamAllBooks(Consumer)} and lets an
+     * interrupted export resume where it stopped.
+     * 
+     * @param after    Id of the last book already consumed, 0 to start from
+     *                 the beginning
+     * @param consumer Callback invoked once per book
+     */
+    @Transactional(readOnly = true)
+    public void streamBooks(long after, Consumer<Book> consumer) {
+        try (Stream<Book> books = bookRepository.streamByIdGreaterThanOrderByIdAsc(after)) {
+            books.forEach(book -> {
+                consumer.accept(book);
+                entityManager.detach(book);
+            });
+        }
+    }
 
     /**
-     * Get all books
+     * Read the fingerprint of the books table, see
+     * BookRepository.findFingerprint. Runs on the primary, like the other
+     * catalog sync reads below, because a lagging replica would make books
+     * written a moment ago look deleted or out of date.
      * 
-     * @return List of all books
+     * @return Fingerprint of the books table
      */
-    public List<Book> getAllBooks() {
-        return bookRepository.findAll();
+    @Transactional
+    public BookRepository.Fingerprint catalogFingerprint() {
+        return bookRepository.findFingerprint();
     }
 
     /**
-     * Get a book by ID
+     * Stream the id and version of every book to the given consumer, from the
+     * primary
+     * 
+     * @param consumer Callback invoked once per book
+     */
+    @Transactional
+    public void streamBookVersions(Consumer<BookRepository.BookVersion> consumer) {
+        try (Stream<BookRepository.BookVersion> versions = bookRepository.streamVersions()) {
+            versions.forEach(consumer);
+        }
+    }
+
+    /**
+     * Load the given books from the primary, bypassing the second-level cache
+     * 
+     * @param ids Book IDs
+     * @return The books that exist, detached, in no particular order
+     */
+    @Transactional
+    public List<Book> loadCurrentBooks(Collection<Long> ids) {
+        List<Book> books = bookRepository.findCurrentByIdIn(ids);
+        books.forEach(entityManager::detach);
+        return books;
+    }
+
+    /**
+     * Get a book by ID.
+     * Results are cached; the entry is evicted once an update or delete of the
+     * book commits (see CatalogIndexService).
      * 
      * @param id Book ID
      * @return Book entity
      * @throws ResourceNotFoundException if book not found
      */
+    @Cacheable(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
     public Book getBookById(Long id) {
         return bookRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+                .orElseThrow(() -> ResourceNotFoundException.stackless("Book not found with id: " + id));
     }
 
     /**
@@ -49,52 +217,88 @@ public class BookService {
     public Book createBook(Book book) {
         // Check if ISBN already exists
         if (bookRepository.findByIsbn(book.getIsbn()).isPresent()) {
-            throw new BadRequestException("Book with ISBN " + book.getIsbn() + " already exists");
+            throw BadRequestException.stackless("Book with ISBN " + book.getIsbn() + " already exists");
         }
 
-        // Validate book copies
-        if (book.getTotalCopies() < 0) {
-            throw new BadRequestException("Total copies cannot be negative");
-        }
-        if (book.getAvailableCopies() < 0) {
-            throw new BadRequestException("Available copies cannot be negative");
-        }
-        if (book.getAvailableCopies() > book.getTotalCopies()) {
-            throw new BadRequestException("Available copies cannot exceed total copies");
-        }
+        validateCopies(book);
+
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.created(savedBook));
+        return savedBook;
+    }
+
+    /**
+     * Insert one chunk of a bulk import in a single transaction.
+     * ISBNs are checked against the catalog with one query for the whole
+     * chunk, and the accepted books are written in JDBC batches
+     * (hibernate.jdbc.batch_size) when the transaction commits. Rejected rows
+     * are reported instead of failing the chunk.
+     * 
+     * @param rows Books that passed bean validation, keyed by their row number
+     *             in the import, in input order
+     * @return Errors for the rows that were not inserted
+     */
+    @Transactional
+    public List<BookImportError> importBooks(Map<Integer, Book> rows) {
+        List<String> isbns = rows.values().stream().map(Book::getIsbn).toList();
+        Set<String> takenIsbns = new HashSet<>(bookRepository.findExistingIsbns(isbns));
 
-        return bookRepository.save(book);
+        List<BookImportError> errors = new ArrayList<>();
+        List<Book> accepted = new ArrayList<>(rows.size());
+        rows.forEach((row, book) -> {
+            try {
+                validateCopies(book);
+                if (!takenIsbns.add(book.getIsbn())) {
+                    throw BadRequestException.stackless("Book with ISBN " + book.getIsbn() + " already exists");
+                }
+            } catch (BadRequestException e) {
+                errors.add(new BookImportError(row, book.getIsbn(), e.getMessage()));
+                return;
+            }
+            book.setId(null);
+            accepted.add(book);
+        });
+
+        bookRepository.saveAll(accepted);
+        accepted.forEach(book -> eventPublisher.publishEvent(BookChangedEvent.created(book)));
+        return errors;
     }
 
     /**
-     * Update an existing book
+     * Update an existing book.
+     * availableCopies in the details is ignored: copies go out and come back
+     * only through loans, so a change to totalCopies moves availableCopies by
+     * the same amount and the copies on loan stay as they are. A loan taken
+     * or returned after the book was read bumps its version, and the update
+     * fails with an optimistic locking conflict instead of overwriting it.
+     * The book is read from the database, not the second-level cache, so the
+     * version checked is never one a copy update has already replaced.
      * 
      * @param id          Book ID
      * @param bookDetails Updated book details
      * @return Updated book entity
      * @throws ResourceNotFoundException if book not found
+     * @throws BadRequestException       if the ISBN is taken, or totalCopies
+     *                                   is below the copies on loan
      */
     @Transactional
     public Book updateBook(Long id, Book bookDetails) {
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+        Book book = bookRepository.findCurrentById(id)
+                .orElseThrow(() -> ResourceNotFoundException.stackless("Book not found with id: " + id));
 
         // Check if ISBN is being changed to a different one that already exists
         if (!book.getIsbn().equals(bookDetails.getIsbn())) {
             bookRepository.findByIsbn(bookDetails.getIsbn()).ifPresent(existingBook -> {
-                throw new BadRequestException("Book with ISBN " + bookDetails.getIsbn() + " already exists");
+                throw BadRequestException.stackless("Book with ISBN " + bookDetails.getIsbn() + " already exists");
             });
         }
 
-        // Validate book copies
         if (bookDetails.getTotalCopies() < 0) {
-            throw new BadRequestException("Total copies cannot be negative");
-        }
-        if (bookDetails.getAvailableCopies() < 0) {
-            throw new BadRequestException("Available copies cannot be negative");
+            throw BadRequestException.stackless("Total copies cannot be negative");
         }
-        if (bookDetails.getAvailableCopies() > bookDetails.getTotalCopies()) {
-            throw new BadRequestException("Available copies cannot exceed total copies");
+        int onLoan = book.getTotalCopies() - book.getAvailableCopies();
+        if (bookDetails.getTotalCopies() < onLoan) {
+            throw BadRequestException.stackless("Total copies cannot be less than the " + onLoan + " copies on loan");
         }
 
         book.setTitle(bookDetails.getTitle());
@@ -103,9 +307,85 @@ public class BookService {
         book.setPublicationYear(bookDetails.getPublicationYear());
         book.setGenre(bookDetails.getGenre());
         book.setTotalCopies(bookDetails.getTotalCopies());
-        book.setAvailableCopies(bookDetails.getAvailableCopies());
+        book.setAvailableCopies(bookDetails.getTotalCopies() - onLoan);
 
-        return bookRepository.save(book);
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.updated(savedBook));
+        return savedBook;
+    }
+
+    /**
+     * Check out one copy of a book.
+     * availableCopies is decremented by a single conditional UPDATE without
+     * loading the book, so concurrent checkouts of the same title never lose
+     * updates and never take more copies than exist. Only LoanService calls
+     * this, so every copy out of the library is held by an open loan.
+     * 
+     * @param id Book ID
+     * @throws ResourceNotFoundException if book not found
+     * @throws BadRequestException       if no copy is available
+     */
+    @Transactional
+    void checkoutCopy(Long id) {
+        if (bookRepository.checkoutCopy(id) == 0) {
+            requireBook(id);
+            throw BadRequestException.stackless("No copies of book " + id + " are available");
+        }
+        publishAvailabilityChange(id);
+    }
+
+    /**
+     * Return one copy of a book.
+     * availableCopies is incremented by a single conditional UPDATE without
+     * loading the book, and never beyond totalCopies. Only LoanService calls
+     * this, when it closes the loan that held the copy.
+     * 
+     * @param id Book ID
+     * @throws ResourceNotFoundException if book not found
+     * @throws BadRequestException       if every copy is already in
+     */
+    @Transactional
+    void returnCopy(Long id) {
+        if (bookRepository.returnCopy(id) == 0) {
+            requireBook(id);
+            throw BadRequestException.stackless("All copies of book " + id + " are already returned");
+        }
+        publishAvailabilityChange(id);
+    }
+
+    /**
+     * @throws ResourceNotFoundException if book not found
+     */
+    private void requireBook(Long id) {
+        if (!bookRepository.existsById(id)) {
+            throw ResourceNotFoundException.stackless("Book not found with id: " + id);
+        }
+    }
+
+    /**
+     * Publishes the book's new version; the row is still locked by this
+     * transaction's update, so the version read is the one it wrote
+     */
+    private void publishAvailabilityChange(Long id) {
+        eventPublisher.publishEvent(new BookAvailabilityChangedEvent(id, bookRepository.findVersionById(id)));
+    }
+
+    /**
+     * Validates the copy counts of a book
+     * 
+     * @throws BadRequestException if a count is negative or more copies are
+     *                             available than exist
+     */
+    private void validateCopies(Book book) {
+        if (book.getTotalCopies() < 0) {
+            throw BadRequestException.stackless("Total copies cannot be negative");
+        }
+        if (book.getAvailableCopies() < 0) {
+            throw BadRequestException.stackless("Available copies cannot be negative");
+        }
+        if (book.getAvailableCopies() > book.getTotalCopies()) {
+            throw BadRequestException.stackless("Available copies cannot exceed total copies");
+        }
     }
 
     /**
@@ -113,31 +393,121 @@ public class BookService {
      * 
      * @param id Book ID
      * @throws ResourceNotFoundException if book not found
+     * @throws BadRequestException       if the book has been lent, as the
+     *                                   loan ledger refers to it
      */
     @Transactional
     public void deleteBook(Long id) {
-        Book book = bookRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Book not found with id: " + id));
+        Book book = bookRepository.findCurrentById(id)
+                .orElseThrow(() -> ResourceNotFoundException.stackless("Book not found with id: " + id));
+        if (loanRepository.existsByBookId(id)) {
+            throw BadRequestException.stackless("Book " + id + " has loans and cannot be deleted");
+        }
         bookRepository.delete(book);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(id));
     }
 
     /**
-     * Search books by title or author
+     * Search books by title or author.
+     * Served from the in-memory search index. The index is built before the
+     * application reports itself ready; a request that arrives while it is
+     * still loading is turned away rather than answered from the database,
+     * which could only match prefixes and would miss books the index finds.
      * 
      * @param keyword Search keyword
-     * @return List of matching books
+     * @return Summaries of the matching books, best match first
+     * @throws ServiceUnavailableException if the index is still loading
      */
-    public List<Book> searchBooks(String keyword) {
-        return bookRepository.findByTitleContainingIgnoreCaseOrAuthorContainingIgnoreCase(keyword, keyword);
+    @Transactional(readOnly = true)
+    public List<BookSummaryResponse> searchBooks(String keyword) {
+        if (!searchIndex.isReady()) {
+            throw ServiceUnavailableException.stackless("The search index is still loading, please retry shortly",
+                    INDEX_RETRY_AFTER_SECONDS);
+        }
+
+        return findAllInOrder(searchIndex.search(keyword, maxSearchResults));
     }
 
     /**
-     * Get books by genre
+     * Suggest completions of a partly typed title or author name.
+     * Answered from the in-memory suggestion index only; while it is still
+     * loading at startup there are no suggestions.
+     * 
+     * @param prefix Text typed so far
+     * @param limit  Maximum number of suggestions, null for the maximum
+     * @return Suggestions, most books first
+     * @throws BadRequestException if the limit is invalid
+     */
+    public List<SuggestionResponse> suggest(String prefix, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw BadRequestException.stackless("Limit must be at least 1");
+        }
+        if (!suggestionIndex.isReady()) {
+            return List.of();
+        }
+        return suggestionIndex.suggest(prefix, limit == null ? SuggestionIndex.MAX_SUGGESTIONS : limit);
+    }
+
+    /**
+     * Get a page of books in a genre.
+     * The genre is matched on its canonical key, so "Sci-Fi", "sci fi" and
+     * "SCI-FI" are the same genre. Served from the in-memory genre index once
+     * it has been built, otherwise from the (genre_key, id) database index.
      * 
      * @param genre Genre name
-     * @return List of books in that genre
+     * @param after Id of the last book from the previous page, null for the
+     *              first page
+     * @param size  Requested page size, null for the configured default
+     * @return Page of books in that genre
      */
-    public List<Book> getBooksByGenre(String genre) {
-        return bookRepository.findByGenreIgnoreCase(genre);
+    @Transactional(readOnly = true)
+    public CursorPageResponse<BookSummaryResponse> getBooksByGenre(String genre, Long after, Integer size) {
+        int pageSize = resolvePageSize(after, size);
+        long cursor = after == null ? 0L : after;
+
+        List<BookSummaryResponse> books = genreIndex.isReady()
+                ? findAllInOrder(genreIndex.idsAfter(genre, cursor, pageSize + 1))
+                : bookRepository.findByGenreKeyAndIdGreaterThanOrderByIdAsc(TextNormalizer.key(genre), cursor,
+                        Limit.of(pageSize + 1));
+        return toPage(books, pageSize);
+    }
+
+    /**
+     * Count books per genre
+     * 
+     * @return Genre facets, largest genre first
+     */
+    @Transactional(readOnly = true)
+    public List<GenreCountResponse> getGenreCounts() {
+        return genreIndex.isReady() ? genreIndex.counts() : bookRepository.countBooksByGenre();
+    }
+
+    /**
+     * Fill in the genre key, normalized title and normalized author of books
+     * saved before they existed
+     * 
+     * @param batchSize Maximum number of books to update
+     * @return Number of books updated, 0 once every book has its keys
+     */
+    @Transactional
+    public int backfillSearchKeys(int batchSize) {
+        List<Book> books = bookRepository.findByNormalizedTitleIsNull(Limit.of(batchSize));
+        books.forEach(Book::deriveKeys);
+        return books.size();
+    }
+
+    /**
+     * Load book summaries by id, keeping the order of the given ids
+     */
+    private List<BookSummaryResponse> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BookSummaryResponse> booksById = bookRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookSummaryResponse::id, Function.identity()));
+        return ids.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 }
@@ -0,0 +1,270 @@
+package com.fl4nk3r.luminalib.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fl4nk3r.luminalib.config.CacheConfig;
+import com.fl4nk3r.luminalib.entity.Book;
+import com.fl4nk3r.luminalib.event.BookAvailabilityChangedEvent;
+import com.fl4nk3r.luminalib.event.BookChangedEvent;
+import com.fl4nk3r.luminalib.repository.BookRepository;
+import com.fl4nk3r.luminalib.search.BookSearchIndex;
+import com.fl4nk3r.luminalib.search.GenreIndex;
+import com.fl4nk3r.luminalib.search.SuggestionIndex;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps the in-memory catalog indexes and caches in step with the books table.
+ * The indexes are built once the application is ready and then updated from
+ * {@link BookChangedEvent}s after each write transaction commits; the same
+ * events evict stale entries from the book cache and bump the catalog
+ * version, which is only done once the indexes reflect the change.
+ * Other instances' writes send no events here, so every sync interval the
+ * books table's fingerprint is compared with the one seen last; when it
+ * moved, the books whose version is newer than the one recorded are
+ * reloaded, evicted and re-indexed, the books that are gone are removed,
+ * and the catalog version is bumped. The indexes and the ETags of
+ * CatalogVersionService thus lag other instances' writes by at most about
+ * one interval.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogIndexService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogIndexService.class);
+    private static final int SYNC_BATCH_SIZE = 500;
+
+    private final BookService bookService;
+    private final BookSearchIndex searchIndex;
+    private final GenreIndex genreIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final CatalogVersionService catalogVersion;
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Guards the indexes against a sync applying a book concurrently with an
+     * event for the same book
+     */
+    private final Object indexLock = new Object();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "catalog-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private BookRepository.Fingerprint lastFingerprint;
+
+    @Value("${luminalib.catalog.sync-interval:1m}")
+    private Duration syncInterval;
+
+    /**
+     * Backfills missing genre and search keys, then loads every book into the
+     * indexes on startup and starts the periodic sync
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndexes() {
+        while (bookService.backfillSearchKeys(500) > 0) {
+            // Each batch commits in its own transaction
+        }
+
+        // Read first, so that writes made during the load show up in the first sync
+        lastFingerprint = bookService.catalogFingerprint();
+        searchIndex.clear();
+        genreIndex.clear();
+        suggestionIndex.clear();
+        bookService.streamAllBooks(book -> {
+            searchIndex.index(book);
+            genreIndex.index(book);
+            suggestionIndex.index(book);
+            catalogVersion.recordBook(book);
+        });
+        searchIndex.markReady();
+        genreIndex.markReady();
+        suggestionIndex.markReady();
+        catalogVersion.bump();
+
+        if (syncInterval.isPositive()) {
+            scheduler.scheduleWithFixedDelay(this::syncSafely, syncInterval.toMillis(), syncInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Catches up with writes made by other instances if the books table
+     * changed since the last sync. Runs every sync interval; can also be
+     * called to sync at once.
+     */
+    public synchronized void sync() {
+        BookRepository.Fingerprint fingerprint = bookService.catalogFingerprint();
+        if (fingerprint.equals(lastFingerprint)) {
+            return;
+        }
+
+        Set<Long> gone = catalogVersion.bookIds();
+        List<Long> changed = new ArrayList<>();
+        bookService.streamBookVersions(book -> {
+            gone.remove(book.id());
+            if (!catalogVersion.isCurrent(book.id(), book.version())) {
+                changed.add(book.id());
+            }
+        });
+
+        for (int from = 0; from < changed.size(); from += SYNC_BATCH_SIZE) {
+            List<Long> batch = changed.subList(from, Math.min(from + SYNC_BATCH_SIZE, changed.size()));
+            // Readers must not be served the cached rows while the batch is reloaded
+            batch.forEach(this::evictBook);
+            Set<Long> missing = new HashSet<>(batch);
+            for (Book book : bookService.loadCurrentBooks(batch)) {
+                missing.remove(book.getId());
+                applyBook(book);
+            }
+            // Deleted since their version was streamed
+            gone.addAll(missing);
+        }
+        gone.forEach(this::applyDeletion);
+
+        lastFingerprint = fingerprint;
+        if (!changed.isEmpty() || !gone.isEmpty()) {
+            catalogVersion.bump();
+        }
+    }
+
+    private void syncSafely() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            log.warn("Catalog sync failed, retrying in {}: {}", syncInterval, e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Applies a committed book change to the indexes, evicts the book from the
+     * cache and bumps the catalog version
+     *
+     * @param event The book change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        synchronized (indexLock) {
+            if (event.type() == BookChangedEvent.Type.DELETED) {
+                removeFromIndexes(event.bookId());
+            } else {
+                addToIndexes(event.book());
+            }
+        }
+
+        Cache books = cacheManager.getCache(CacheConfig.BOOKS_CACHE);
+        if (books != null && event.type() != BookChangedEvent.Type.CREATED) {
+            books.evict(event.bookId());
+        }
+        catalogVersion.bump();
+    }
+
+    /**
+     * Evicts a book whose available copies changed before the change
+     * commits, so that readers stop being served the old row while the
+     * commit is under way. See {@link #onAvailabilityChanged}.
+     *
+     * @param event The checkout or return
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeAvailabilityCommitted(BookAvailabilityChangedEvent event) {
+        evictBook(event.bookId());
+    }
+
+    /**
+     * Evicts a book whose available copies changed and records its new
+     * version. Title, author and genre are unchanged, so the indexes are left
+     * alone. The copy updates bypass Hibernate's own invalidation (see
+     * BookRepository.COPIES_QUERY_SPACE), so the book is evicted from the
+     * second-level cache here, along with the cached book queries, whose
+     * summaries carry availableCopies. It was already evicted before the
+     * commit; evicting again drops what readers cached from the old row in
+     * between. A reader can still put the old row back after this, until the
+     * cache TTL expires, which is why writes load books with
+     * BookRepository.findCurrentById.
+     *
+     * @param event The checkout or return
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(BookAvailabilityChangedEvent event) {
+        evictBook(event.bookId());
+        catalogVersion.recordBook(event.bookId(), event.version());
+        catalogVersion.bump();
+    }
+
+    /**
+     * Indexes a book read by the sync unless a newer version, or its deletion,
+     * was recorded in the meantime
+     */
+    private void applyBook(Book book) {
+        synchronized (indexLock) {
+            if (!catalogVersion.isCurrent(book.getId(), book.getVersion())) {
+                addToIndexes(book);
+            }
+        }
+        evictBook(book.getId());
+    }
+
+    private void applyDeletion(Long bookId) {
+        synchronized (indexLock) {
+            removeFromIndexes(bookId);
+        }
+        evictBook(bookId);
+    }
+
+    private void addToIndexes(Book book) {
+        searchIndex.index(book);
+        genreIndex.index(book);
+        suggestionIndex.index(book);
+        catalogVersion.recordBook(book);
+    }
+
+    private void removeFromIndexes(Long bookId) {
+        searchIndex.remove(bookId);
+        genreIndex.remove(bookId);
+        suggestionIndex.remove(bookId);
+        catalogVersion.removeBook(bookId);
+    }
+
+    private void evictBook(Long bookId) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictEntityData(Book.class, bookId);
+        sessionFactory.getCache().evictQueryRegion(BookRepository.QUERY_CACHE_REGION);
+
+        Cache books = cacheManager.getCache(CacheConfig.BOOKS_CACHE);
+        if (books != null) {
+            books.evict(bookId);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.fl4nk3r.luminalib.service;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+
+import com.fl4nk3r.luminalib.entity.Book;
+
+/**
+ * Tracks catalog and per-book versions for ETag based conditional requests.
+ * The catalog version is bumped after every committed book change and tags
+ * the list endpoints; each book is tagged with its persistent @Version. Both
+ * are kept in memory so a matching If-None-Match can be answered with a 304
+ * before the database is queried.
+ * The catalog tag starts with an epoch taken at startup, so tags handed out
+ * by a previous run never match.
+ * Writes made by other instances only reach these versions through
+ * CatalogIndexService's periodic sync, so with more than one instance a tag
+ * can be answered with a 304 for up to one sync interval after the data
+ * behind it changed.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Service
+public class CatalogVersionService {
+
+    /**
+     * Version recorded for a deleted book, so a copy of the book read before
+     * the delete is never taken for a newer version
+     */
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private final Map<Long, Long> bookVersions = new ConcurrentHashMap<>();
+    private volatile String catalogTag = tag(0);
+
+    /**
+     * Bumps the catalog version
+     */
+    public void bump() {
+        catalogTag = tag(version.incrementAndGet());
+    }
+
+    /**
+     * Records the current version of a book
+     *
+     * @param book Saved book
+     */
+    public void recordBook(Book book) {
+        recordBook(book.getId(), book.getVersion());
+    }
+
+    /**
+     * Records a version of a book. Versions only grow, so a version that
+     * arrives after a newer one is ignored.
+     *
+     * @param bookId      Book ID
+     * @param bookVersion Committed version of the book
+     */
+    public void recordBook(Long bookId, long bookVersion) {
+        bookVersions.merge(bookId, bookVersion, Math::max);
+    }
+
+    /**
+     * Forgets a deleted book
+     *
+     * @param bookId ID of the deleted book
+     */
+    public void removeBook(Long bookId) {
+        bookVersions.put(bookId, DELETED);
+    }
+
+    /**
+     * @param bookId      Book ID
+     * @param bookVersion Version of the book as read from the database
+     * @return true if that version, or a newer one, is already recorded, or
+     *         the book was deleted
+     */
+    public boolean isCurrent(Long bookId, long bookVersion) {
+        Long known = bookVersions.get(bookId);
+        return known != null && known >= bookVersion;
+    }
+
+    /**
+     * @return IDs of the books recorded and not deleted, as a new set
+     */
+    public Set<Long> bookIds() {
+        Set<Long> ids = new HashSet<>();
+        bookVersions.forEach((bookId, bookVersion) -> {
+            if (bookVersion != DELETED) {
+                ids.add(bookId);
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * @return Strong ETag of the current catalog version. Callers should read
+     *         it before loading any data, so a concurrent change can only make
+     *         the tag older than the data, never newer.
+     */
+    public String catalogTag() {
+        return catalogTag;
+    }
+
+    /**
+     * @param bookId Book ID
+     * @return Strong ETag of the book's last known version, or null if the
+     *         book has not been seen yet
+     */
+    public String bookTag(Long bookId) {
+        Long bookVersion = bookVersions.get(bookId);
+        return bookVersion == null || bookVersion == DELETED ? null : tagOf(bookId, bookVersion);
+    }
+
+    /**
+     * @param book Loaded book
+     * @return Strong ETag of the given book
+     */
+    public static String tagOf(Book book) {
+        return tagOf(book.getId(), book.getVersion());
+    }
+
+    private static String tagOf(Long bookId, long bookVersion) {
+        return "\"" + bookId + "-" + bookVersion + "\"";
+    }
+
+    private String tag(long catalogVersion) {
+        return "\"" + epoch + "-" + catalogVersion + "\"";
+    }
+}
@@ -1,111 +1,252 @@
 package com.fl4nk3r.luminalib.service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.fl4nk3r.luminalib.entity.User;
+import com.fl4nk3r.luminalib.security.Hs256TokenVerifier;
+import com.fl4nk3r.luminalib.security.TokenDenylist;
+import com.fl4nk3r.luminalib.security.TokenDigest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 
+/**
+ * Issues and verifies JWTs.
+ * The signing key and parser are built once. A verified token is parsed and
+ * its HMAC checked a single time, then kept in a bounded cache until its
+ * expiration, so repeat requests with the same bearer token skip the crypto.
+ * Tokens seen for the first time go through {@link Hs256TokenVerifier},
+ * which handles the tokens issued here without the generic jjwt parser;
+ * anything it does not handle is parsed by jjwt.
+ * The cache is keyed by a SHA-256 digest of the token, never the token
+ * itself.
+ * Tokens carry the user's role and token version, so a verified token is
+ * enough to authenticate a request without loading the user.
+ * Revoked tokens are checked against the {@link TokenDenylist} on every
+ * verification, cached or not. The denylist is keyed by the token's id (the
+ * jti claim), not by the token string: a signature can be written in more
+ * than one base64url form, and every form of a revoked token must stay
+ * revoked. Tokens issued without an id are keyed by their decoded signature.
+ * That key is computed once, when the token enters the cache, and not looked
+ * up at all while nothing is revoked.
+ */
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    public static final String ROLE_CLAIM = "role";
+    public static final String TOKEN_VERSION_CLAIM = "tv";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    @Value("${jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+
+    private final TokenDenylist denylist;
+    private Key signingKey;
+    private JwtParser parser;
+    private Hs256TokenVerifier verifier;
+    private MessageDigest sha256;
+    private Cache<TokenDigest, CachedToken> verifiedTokens;
+
+    /**
+     * Claims of a token whose signature and expiration have been checked
+     *
+     * @param subject      Username/email the token was issued to
+     * @param expiresAt    Expiration of the token
+     * @param role         Role of the user when the token was issued, null in
+     *                     tokens issued before roles were embedded
+     * @param tokenVersion Token version of the user when the token was issued,
+     *                     null in tokens issued before versions were embedded
+     * @param id           Token id (jti), null in tokens issued without one
+     */
+    public record VerifiedToken(String subject, Date expiresAt, String role, Long tokenVersion, String id) {
+    }
+
+    /**
+     * A verified token with its key in the denylist
+     */
+    private record CachedToken(VerifiedToken token, TokenDigest revocationKey) {
+    }
+
+    @PostConstruct
+    void init() throws NoSuchAlgorithmException {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        verifier = new Hs256TokenVerifier(keyBytes);
+        sha256 = MessageDigest.getInstance("SHA-256");
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(Expiry.creating((TokenDigest digest, CachedToken cached) -> Duration
+                        .ofMillis(Math.max(0, cached.token().expiresAt().getTime() - System.currentTimeMillis()))))
+                .build();
+    }
+
     /**
-     * Generates a JWT token for the given user
-     * @param userDetails The user details
+     * Generates a JWT token for the given user, carrying their role and
+     * token version
+     * @param user The user
      * @return JWT token string
      */
-    public String generateToken(UserDetails userDetails) {
+    public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userDetails.getUsername());
+        claims.put(ROLE_CLAIM, user.getRole());
+        claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        return createToken(claims, user.getUsername());
     }
 
     /**
-     * Creates the actual JWT token with claims and expiration
+     * Creates the actual JWT token with claims and expiration.
+     * The random token id keeps two tokens issued in the same second distinct,
+     * so revoking one never revokes the other.
      */
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     /**
-     * Validates if the token is valid for the given user
+     * Verifies the signature and expiration of a token, parsing it only if
+     * it is not already in the verified-token cache
      * @param token JWT token
-     * @param userDetails User details to validate against
-     * @return true if valid, false otherwise
+     * @return The token's claims
+     * @throws JwtException if the token is malformed, badly signed, expired or
+     *                      revoked
      */
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    public VerifiedToken verify(String token) {
+        return verify(token, digest(token)).token();
     }
 
     /**
-     * Extracts the username from the JWT token
+     * Revoke a token until it expires
      * @param token JWT token
-     * @return Username/email from the token
+     * @return The claims of the revoked token
+     * @throws JwtException if the token is malformed, badly signed, expired,
+     *                      already revoked, or has no expiration
      */
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    public VerifiedToken revoke(String token) {
+        TokenDigest digest = digest(token);
+        CachedToken cached = verify(token, digest);
+        VerifiedToken verified = cached.token();
+        if (verified.expiresAt() == null) {
+            throw new JwtException("Token without expiration cannot be revoked");
+        }
+        denylist.revoke(cached.revocationKey(), verified.expiresAt());
+        verifiedTokens.invalidate(digest);
+        return verified;
     }
 
     /**
-     * Extracts expiration date from token
+     * @return The verified token; its revocation key is null if the token
+     *         has no expiration, as such tokens are neither cached nor
+     *         revocable
      */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private CachedToken verify(String token, TokenDigest digest) {
+        CachedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached == null) {
+            VerifiedToken verified = verifier.verify(token);
+            if (verified == null) {
+                Claims claims = parser.parseClaimsJws(token).getBody();
+                verified = new VerifiedToken(claims.getSubject(), claims.getExpiration(),
+                        claims.get(ROLE_CLAIM, String.class), claims.get(TOKEN_VERSION_CLAIM, Long.class),
+                        claims.getId());
+            }
+            if (verified.expiresAt() == null) {
+                return new CachedToken(verified, null);
+            }
+            cached = new CachedToken(verified, revocationKey(token, verified));
+            verifiedTokens.put(digest, cached);
+        }
+        if (!denylist.isEmpty() && denylist.isRevoked(cached.revocationKey(), cached.token().expiresAt())) {
+            throw new JwtException("Token has been revoked");
+        }
+        return cached;
     }
 
     /**
-     * Checks if token is expired
+     * Key of a verified token in the denylist: the digest of its id, or for
+     * tokens without one, of its decoded signature, which is the same for
+     * every encoding of the token
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private TokenDigest revocationKey(String token, VerifiedToken verified) {
+        if (verified.id() != null) {
+            return digest(verified.id().getBytes(StandardCharsets.UTF_8));
+        }
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        return digest(Base64.getUrlDecoder().decode(signature));
     }
 
     /**
-     * Generic method to extract any claim from the token
+     * Validates if the token is valid for the given user
+     * @param token JWT token
+     * @param userDetails User details to validate against
+     * @return true if valid, false otherwise
      */
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public boolean isTokenValid(String token, UserDetails userDetails) {
+        try {
+            return verify(token).subject().equals(userDetails.getUsername());
+        } catch (JwtException e) {
+            return false;
+        }
     }
 
     /**
-     * Extracts all claims from the token
+     * Extracts the username from the JWT token
+     * @param token JWT token
+     * @return Username/email from the token
+     * @throws JwtException if the token is malformed, badly signed or expired
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public String extractUsername(String token) {
+        return verify(token).subject();
     }
 
-    /**
-     * Gets the signing key from the secret
-     */
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private TokenDigest digest(String token) {
+        return digest(token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private TokenDigest digest(byte[] bytes) {
+        MessageDigest md;
+        try {
+            md = (MessageDigest) sha256.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer hash = ByteBuffer.wrap(md.digest(bytes));
+        return new TokenDigest(hash.getLong(), hash.getLong());
     }
 }
@@ -0,0 +1,210 @@
+package com.fl4nk3r.luminalib.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fl4nk3r.luminalib.dto.response.CursorPageResponse;
+import com.fl4nk3r.luminalib.dto.response.LoanResponse;
+import com.fl4nk3r.luminalib.entity.Loan;
+import com.fl4nk3r.luminalib.entity.User;
+import com.fl4nk3r.luminalib.exception.BadRequestException;
+import com.fl4nk3r.luminalib.exception.ResourceNotFoundException;
+import com.fl4nk3r.luminalib.repository.LoanRepository;
+import com.fl4nk3r.luminalib.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Borrowing and returning copies, and the ledger of loans they leave.
+ * A borrow takes a copy with BookService's conditional update and records the
+ * loan in the same transaction; a return puts the copy back and closes the
+ * loan, again in one transaction. Either way the book row is the first row
+ * written, so concurrent borrows and returns of a title queue on that one row
+ * lock, in the same order, and cannot deadlock; a borrow that finds no copy
+ * left fails before it writes anything else.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Service
+@RequiredArgsConstructor
+public class LoanService {
+
+    private final LoanRepository loanRepository;
+    private final UserRepository userRepository;
+    private final BookService bookService;
+
+    @Value("${luminalib.loans.period:14d}")
+    private Duration loanPeriod;
+
+    @Value("${luminalib.loans.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${luminalib.loans.max-page-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Borrow one copy of a book
+     *
+     * @param email  Email of the borrower
+     * @param bookId Book ID
+     * @return The new loan
+     * @throws ResourceNotFoundException if the user or the book is not found
+     * @throws BadRequestException       if no copy is available
+     */
+    @Transactional
+    public LoanResponse borrow(String email, Long bookId) {
+        Long userId = requireUserId(email);
+        bookService.checkoutCopy(bookId);
+
+        LocalDateTime now = LocalDateTime.now();
+        Loan loan = loanRepository.save(Loan.builder()
+                .userId(userId)
+                .bookId(bookId)
+                .borrowedAt(now)
+                .dueAt(now.plus(loanPeriod))
+                .build());
+        return LoanResponse.of(loan);
+    }
+
+    /**
+     * Return the copy held by a loan.
+     * The loan is closed by a conditional update after the copy is put back;
+     * if a concurrent return closed it first, the whole return is rolled
+     * back, copy included.
+     *
+     * @param id    Loan ID
+     * @param email Email of the caller
+     * @param admin Whether the caller may return other users' loans
+     * @return The closed loan
+     * @throws ResourceNotFoundException if the loan is not found, or is not
+     *                                   the caller's and the caller is not an
+     *                                   admin
+     * @throws BadRequestException       if the loan is already closed
+     */
+    @Transactional
+    public LoanResponse returnLoan(Long id, String email, boolean admin) {
+        Loan loan = loanRepository.findById(id)
+                .orElseThrow(() -> ResourceNotFoundException.stackless("Loan not found with id: " + id));
+        if (!admin && !loan.getUserId().equals(requireUserId(email))) {
+            throw ResourceNotFoundException.stackless("Loan not found with id: " + id);
+        }
+        if (loan.getReturnedAt() != null) {
+            throw BadRequestException.stackless("Loan " + id + " is already returned");
+        }
+
+        bookService.returnCopy(loan.getBookId());
+        LocalDateTime now = LocalDateTime.now();
+        if (loanRepository.closeLoan(id, now) == 0) {
+            throw BadRequestException.stackless("Loan " + id + " is already returned");
+        }
+        return new LoanResponse(loan.getId(), loan.getBookId(), loan.getUserId(), loan.getBorrowedAt(),
+                loan.getDueAt(), now);
+    }
+
+    /**
+     * Get a page of a user's loans, open and closed, newest first
+     *
+     * @param email Email of the user
+     * @param after Id of the last loan from the previous page, null for the
+     *              first page
+     * @param size  Requested page size, null for the configured default
+     * @return Page of loans with the cursor for the next page
+     * @throws ResourceNotFoundException if the user is not found
+     * @throws BadRequestException       if the cursor or page size is invalid
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<LoanResponse> getLoans(String email, Long after, Integer size) {
+        int pageSize = resolvePageSize(after, size);
+        Long userId = requireUserId(email);
+
+        // Fetch one extra row to know whether another page exists
+        List<LoanResponse> loans = loanRepository.findByUserIdAndIdLessThanOrderByIdDesc(userId,
+                after == null ? Long.MAX_VALUE : after, Limit.of(pageSize + 1));
+        return toPage(loans, pageSize);
+    }
+
+    /**
+     * Get a page of the loans past their due date and not returned, soonest
+     * due first.
+     * The cursor is the id of the last loan of the previous page; a loan's due
+     * date never changes, so the next page starts after that loan's (due_at,
+     * id), looked up by primary key.
+     *
+     * @param after Id of the last loan from the previous page, null for the
+     *              first page
+     * @param size  Requested page size, null for the configured default
+     * @return Page of overdue loans with the cursor for the next page
+     * @throws BadRequestException if the cursor or page size is invalid
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<LoanResponse> getOverdueLoans(Long after, Integer size) {
+        int pageSize = resolvePageSize(after, size);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<LoanResponse> loans;
+        if (after == null) {
+            loans = loanRepository.findByReturnedAtIsNullAndDueAtBeforeOrderByDueAtAscIdAsc(now,
+                    Limit.of(pageSize + 1));
+        } else {
+            LocalDateTime dueAt = loanRepository.findById(after)
+                    .map(Loan::getDueAt)
+                    .orElseThrow(() -> BadRequestException.stackless("Unknown cursor: " + after));
+            loans = loanRepository.findOverdueAfter(now, dueAt, after, Limit.of(pageSize + 1));
+        }
+        return toPage(loans, pageSize);
+    }
+
+    /**
+     * Looks the user up by email; served from Hibernate's query and entity
+     * caches once the user has been seen
+     *
+     * @throws ResourceNotFoundException if the user is not found
+     */
+    private Long requireUserId(String email) {
+        return userRepository.findByEmail(email)
+                .map(User::getId)
+                .orElseThrow(() -> ResourceNotFoundException.stackless("User not found with email: " + email));
+    }
+
+    /**
+     * Validates the paging parameters
+     *
+     * @return The effective page size
+     * @throws BadRequestException if the cursor or page size is invalid
+     */
+    private int resolvePageSize(Long after, Integer size) {
+        if (after != null && after < 0) {
+            throw BadRequestException.stackless("Cursor cannot be negative");
+        }
+        if (size != null && size < 1) {
+            throw BadRequestException.stackless("Page size must be at least 1");
+        }
+        return size == null ? defaultPageSize : Math.min(size, maxPageSize);
+    }
+
+    /**
+     * Builds a page from up to pageSize + 1 loans; the extra loan only
+     * signals that a next page exists
+     */
+    private CursorPageResponse<LoanResponse> toPage(List<LoanResponse> loans, int pageSize) {
+        Long nextCursor = null;
+        if (loans.size() > pageSize) {
+            loans = loans.subList(0, pageSize);
+            nextCursor = loans.get(pageSize - 1).id();
+        }
+
+        return CursorPageResponse.<LoanResponse>builder()
+                .content(loans)
+                .size(pageSize)
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
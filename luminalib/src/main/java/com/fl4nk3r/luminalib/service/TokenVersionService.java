@@ -0,0 +1,95 @@
+package com.fl4nk3r.luminalib.service;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fl4nk3r.luminalib.event.UserTokensRevokedEvent;
+import com.fl4nk3r.luminalib.exception.ResourceNotFoundException;
+import com.fl4nk3r.luminalib.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * In-memory table of user token versions.
+ * Tokens carry the token version of their user, so a request can be
+ * authenticated from its verified claims alone as long as that version is
+ * still current. Versions are read from the database once per user and then
+ * kept for jwt.token-version-refresh, which bounds how long another instance
+ * may keep accepting tokens revoked elsewhere; revocations on this instance
+ * take effect as soon as they commit.
+ * Versions are loaded on virtual threads and awaited, never computed inside
+ * the cache: a query run under the cache's bin lock would pin the carrier
+ * of a virtual request thread for the whole database round trip.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Service
+public class TokenVersionService implements DisposableBean {
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService loader = Executors.newVirtualThreadPerTaskExecutor();
+    private final AsyncLoadingCache<String, Long> versions;
+
+    public TokenVersionService(UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+            @Value("${jwt.token-version-cache-size:100000}") long cacheSize,
+            @Value("${jwt.token-version-refresh:5m}") Duration refresh) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(refresh)
+                .executor(loader)
+                .buildAsync(email -> userRepository.findTokenVersionByEmail(email).orElse(null));
+    }
+
+    /**
+     * @param email        Email of the user the token was issued to
+     * @param tokenVersion Token version carried by the token
+     * @return true if the user still exists and the version is current
+     */
+    public boolean isCurrent(String email, long tokenVersion) {
+        Long current = versions.get(email).join();
+        return current != null && current == tokenVersion;
+    }
+
+    /**
+     * Invalidate every token issued to a user so far; call whenever the
+     * user's role or password changes
+     *
+     * @param email Email of the user
+     * @throws ResourceNotFoundException if the user does not exist
+     */
+    @Transactional
+    public void revokeTokens(String email) {
+        if (userRepository.incrementTokenVersion(email) == 0) {
+            throw ResourceNotFoundException.stackless("User not found with email: " + email);
+        }
+        eventPublisher.publishEvent(new UserTokensRevokedEvent(email));
+    }
+
+    /**
+     * Drops the cached version once the increment has committed
+     *
+     * @param event The revocation
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokensRevoked(UserTokensRevokedEvent event) {
+        versions.synchronous().invalidate(event.email());
+    }
+
+    @Override
+    public void destroy() {
+        loader.shutdownNow();
+    }
+}
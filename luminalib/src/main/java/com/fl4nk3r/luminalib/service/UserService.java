@@ -0,0 +1,63 @@
+package com.fl4nk3r.luminalib.service;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fl4nk3r.luminalib.dto.response.UserResponse;
+import com.fl4nk3r.luminalib.exception.ResourceNotFoundException;
+import com.fl4nk3r.luminalib.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Read-only lookups of user profiles.
+ * Every method runs in a read-only transaction, so the lookups are served by
+ * the read replica when one is configured. Profiles are selected straight
+ * into responses, no entity is loaded.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class UserService {
+
+    private final UserRepository userRepository;
+
+    /**
+     * Get a user's profile by email
+     *
+     * @param email Email of the user
+     * @return User details
+     * @throws ResourceNotFoundException if user not found
+     */
+    public UserResponse getProfile(String email) {
+        return userRepository.findProfileByEmail(email)
+                .orElseThrow(() -> ResourceNotFoundException.stackless("User not found with email: " + email));
+    }
+
+    /**
+     * Get a user's profile by ID
+     *
+     * @param id User ID
+     * @return User details
+     * @throws ResourceNotFoundException if user not found
+     */
+    public UserResponse getProfile(Long id) {
+        return userRepository.findProfileById(id)
+                .orElseThrow(() -> ResourceNotFoundException.stackless("User not found with id: " + id));
+    }
+
+    /**
+     * Get every user's profile
+     *
+     * @return Profiles of all users, ordered by ID
+     */
+    public List<UserResponse> getAllProfiles() {
+        return userRepository.findAllByOrderByIdAsc();
+    }
+}
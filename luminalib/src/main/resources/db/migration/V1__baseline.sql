@@ -0,0 +1,29 @@
+-- Schema as Hibernate created it (ddl-auto=update) before migrations were introduced.
+-- Databases created that way are baselined at this version and receive every later migration.
+
+create table books (
+    id bigint not null auto_increment,
+    title varchar(255) not null,
+    author varchar(255) not null,
+    isbn varchar(255) not null,
+    publication_year integer not null,
+    genre varchar(255) not null,
+    total_copies integer not null,
+    available_copies integer not null,
+    primary key (id),
+    constraint uk_books_isbn unique (isbn),
+    check (publication_year >= 1000),
+    check (total_copies >= 0),
+    check (available_copies >= 0)
+);
+
+create table users (
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    password varchar(255) not null,
+    role varchar(255),
+    primary key (id),
+    constraint uk_users_email unique (email)
+);
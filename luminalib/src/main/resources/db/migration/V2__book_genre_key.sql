@@ -0,0 +1,7 @@
+-- Canonical genre key ("Sci-Fi" and "sci fi" both become "sci-fi"), derived in Java by TextNormalizer.key.
+-- Existing rows are filled in at startup by BookService.backfillSearchKeys.
+
+alter table books add column genre_key varchar(255);
+
+-- Keyset pages of a genre: genre_key = ? and id > ? order by id
+create index idx_books_genre_key on books (genre_key, id);
@@ -0,0 +1,3 @@
+-- Optimistic-locking version of a book, bumped on every update; it also backs the book's ETag.
+
+alter table books add column version bigint not null default 0;
@@ -0,0 +1,11 @@
+-- Book IDs come from a pooled table generator instead of the auto-increment column, so that inserts can be
+-- batched. The column keeps its auto-increment, which is unused as Hibernate always supplies the ID.
+-- BookIdGeneratorInitializer moves next_val past the existing IDs at startup.
+
+create table id_generators (
+    name varchar(255) not null,
+    next_val bigint,
+    primary key (name)
+);
+
+insert into id_generators (name, next_val) values ('books', 0);
@@ -0,0 +1,4 @@
+-- Version of a user's tokens: tokens carry the version they were issued with and stop being accepted once it
+-- is incremented. Existing users start at 0.
+
+alter table users add column token_version bigint not null default 0;
@@ -0,0 +1,11 @@
+-- Normalized (lower-cased, accent and punctuation free) title and author, so that the
+-- database search is a prefix range scan on an index instead of upper(..) like '%kw%' over every row.
+-- Existing rows are filled in at startup by BookService.backfillSearchKeys, which normalizes in Java
+-- exactly as new rows are normalized.
+
+alter table books add column normalized_title varchar(255);
+alter table books add column normalized_author varchar(255);
+
+-- Search by title or author prefix, and finding rows still to be backfilled (normalized_title is null)
+create index idx_books_normalized_title on books (normalized_title);
+create index idx_books_normalized_author on books (normalized_author);
@@ -0,0 +1,25 @@
+-- Loan ledger: one row per copy borrowed, closed by setting returned_at.
+-- Borrowing takes the copy with the conditional update on books and inserts the loan in the same transaction;
+-- returning updates books before it closes the loan. Both lock the book row first, so they cannot deadlock.
+
+create table loans (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    book_id bigint not null,
+    borrowed_at datetime(6) not null,
+    due_at datetime(6) not null,
+    returned_at datetime(6),
+    primary key (id),
+    constraint fk_loans_user foreign key (user_id) references users (id),
+    constraint fk_loans_book foreign key (book_id) references books (id)
+);
+
+-- A user's loans, newest first: user_id = ? and id < ? order by id desc
+create index idx_loans_user on loans (user_id, id);
+
+-- Overdue loans, soonest due first: returned_at is null and due_at < ? order by due_at, id.
+-- Pages continue from the last loan's (due_at, id), so each page is a range of the index.
+create index idx_loans_open on loans (returned_at, due_at, id);
+
+-- Loans of a book, checked before a book is deleted; also backs fk_loans_book
+create index idx_loans_book on loans (book_id);
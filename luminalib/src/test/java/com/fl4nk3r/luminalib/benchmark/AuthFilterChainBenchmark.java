@@ -0,0 +1,121 @@
+package com.fl4nk3r.luminalib.benchmark;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+
+import com.fl4nk3r.luminalib.LuminalibApplication;
+import com.fl4nk3r.luminalib.dto.request.RegisterRequest;
+import com.fl4nk3r.luminalib.security.AuthTokenFilter;
+import com.fl4nk3r.luminalib.service.AuthService;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+/**
+ * Cost of the whole Spring Security filter chain for one request, as the
+ * application configures it: a protected endpoint with a valid bearer token
+ * (verified by {@link AuthTokenFilter}, authorized from the token's claims),
+ * a public endpoint without a token, and a protected endpoint with a token
+ * whose signature does not match.
+ * The application context is started once against in-memory H2; each
+ * operation builds a mock request (sharing one servlet context, which is
+ * expensive to create) and runs it through
+ * {@code springSecurityFilterChain} up to the point where the servlet would be
+ * called.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class AuthFilterChainBenchmark {
+
+    private static final FilterChain SERVLET = (request, response) -> {
+    };
+
+    private ConfigurableApplicationContext context;
+    private final MockServletContext servletContext = new MockServletContext();
+    private Filter securityFilterChain;
+    private String bearer;
+    private String forged;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        byte[] secret = new byte[32];
+        ThreadLocalRandom.current().nextBytes(secret);
+        context = new SpringApplicationBuilder(LuminalibApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:filterchain;MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+                                + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.show-sql=false",
+                        "--jwt.secret=" + Base64.getEncoder().encodeToString(secret),
+                        "--jwt.expiration=3600000",
+                        "--logging.level.root=WARN");
+        securityFilterChain = context.getBean("springSecurityFilterChain", Filter.class);
+
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail("reader@bench.test");
+        request.setPassword("benchmark-password");
+        request.setFirstName("Bench");
+        request.setLastName("Mark");
+        String token = context.getBean(AuthService.class).register(request, "127.0.0.1").getToken();
+        bearer = "Bearer " + token;
+        char last = token.charAt(token.length() - 1);
+        forged = bearer.substring(0, bearer.length() - 1) + (last == 'A' ? 'B' : 'A');
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int bearerToken() throws IOException, ServletException {
+        return run("/api/users/me", bearer);
+    }
+
+    @Benchmark
+    public int anonymous() throws IOException, ServletException {
+        return run("/api/books", null);
+    }
+
+    @Benchmark
+    public int badSignature() throws IOException, ServletException {
+        return run("/api/users/me", forged);
+    }
+
+    private int run(String uri, String authorization) throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", uri);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        securityFilterChain.doFilter(request, response, SERVLET);
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,112 @@
+package com.fl4nk3r.luminalib.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.flywaydb.core.Flyway;
+
+import com.fl4nk3r.luminalib.entity.Book;
+import com.fl4nk3r.luminalib.search.TextNormalizer;
+
+/**
+ * Deterministic synthetic catalog shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private static final String[] WORDS = {
+            "shadow", "river", "garden", "silent", "empire", "winter", "orchard", "stone", "glass", "harbor",
+            "crimson", "forest", "letters", "night", "summer", "kingdom", "island", "secret", "mountain", "city",
+            "memory", "ocean", "house", "queen", "stranger", "journey", "fire", "lantern", "bridge", "clock",
+            "desert", "echo", "feather", "golden", "hollow", "iron", "jade", "keeper", "last", "mirror",
+            "north", "paper", "quiet", "raven", "salt", "thief", "under", "velvet", "wild", "year" };
+    private static final String[] FIRST_NAMES = {
+            "Ada", "Bruno", "Clara", "Dmitri", "Elena", "Farah", "Gustav", "Hana", "Ivan", "Julia",
+            "Kenji", "Lucia", "Mateo", "Nadia", "Oscar", "Priya", "Quentin", "Rosa", "Samir", "Tove" };
+    private static final String[] LAST_NAMES = {
+            "Abbott", "Brennan", "Castillo", "Dubois", "Eriksen", "Fontaine", "Garcia", "Holm", "Ibsen", "Jensen",
+            "Kowalski", "Lindqvist", "Moreau", "Novak", "Okafor", "Petrov", "Quinn", "Rossi", "Stone", "Tanaka" };
+    private static final String[] GENRES = {
+            "Fiction", "Sci-Fi", "Fantasy", "Mystery", "History", "Biography", "Poetry", "Romance" };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds a catalog of the given size; the same size always yields the same
+     * books.
+     */
+    static List<Book> books(int count) {
+        Random random = new Random(42);
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            int words = 2 + random.nextInt(4);
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    title.append(' ');
+                }
+                String word = WORDS[random.nextInt(WORDS.length)];
+                title.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            }
+            String author = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            int totalCopies = 1 + random.nextInt(10);
+            String genre = GENRES[random.nextInt(GENRES.length)];
+            books.add(new Book((long) i, title.toString(), author, String.format("978-%010d", i),
+                    1900 + random.nextInt(125), genre, TextNormalizer.key(genre),
+                    TextNormalizer.normalize(title.toString()), TextNormalizer.normalize(author), totalCopies,
+                    random.nextInt(totalCopies + 1), 0L));
+        }
+        return books;
+    }
+
+    /**
+     * Opens a fresh in-memory H2 database holding the given books, with the
+     * schema and indexes the Flyway migrations create for {@link Book}.
+     */
+    static Connection h2Catalog(String name, List<Book> books) throws SQLException {
+        String url = "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        Flyway flyway = Flyway.configure().dataSource(url, "sa", "").cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+
+        Connection connection = DriverManager.getConnection(url, "sa", "");
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into books (id, title, author, isbn, publication_year, genre, genre_key, normalized_title, "
+                        + "normalized_author, total_copies, available_copies, version) "
+                        + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)")) {
+            int batched = 0;
+            for (Book book : books) {
+                insert.setLong(1, book.getId());
+                insert.setString(2, book.getTitle());
+                insert.setString(3, book.getAuthor());
+                insert.setString(4, book.getIsbn());
+                insert.setInt(5, book.getPublicationYear());
+                insert.setString(6, book.getGenre());
+                insert.setString(7, book.getGenreKey());
+                insert.setString(8, book.getNormalizedTitle());
+                insert.setString(9, book.getNormalizedAuthor());
+                insert.setInt(10, book.getTotalCopies());
+                insert.setInt(11, book.getAvailableCopies());
+                insert.addBatch();
+                if (++batched % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("analyze");
+        }
+        return connection;
+    }
+}
@@ -0,0 +1,78 @@
+package com.fl4nk3r.luminalib.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fl4nk3r.luminalib.dto.response.BookSummaryResponse;
+import com.fl4nk3r.luminalib.dto.response.CursorPageResponse;
+import com.fl4nk3r.luminalib.dto.response.SparseFieldSet;
+import com.fl4nk3r.luminalib.entity.Book;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Cost of writing one page of the book list as JSON: Book entities as the
+ * list endpoints used to return them, the {@link BookSummaryResponse}
+ * projection they return now, and the projection cut down to
+ * {@code ?fields=id,title} by {@link SparseFieldSet}. Only serialization is
+ * measured; the projection also saves the entity loading and dirty-checking
+ * snapshot on the query side.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class BookListSerializationBenchmark {
+
+    @Param({ "50", "500" })
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private CursorPageResponse<Book> entityPage;
+    private CursorPageResponse<BookSummaryResponse> summaryPage;
+    private SparseFieldSet.Selection<BookSummaryResponse> idAndTitle;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Book> books = BenchmarkData.books(pageSize);
+        List<BookSummaryResponse> summaries = books.stream()
+                .map(book -> new BookSummaryResponse(book.getId(), book.getTitle(), book.getAuthor(),
+                        book.getIsbn(), book.getPublicationYear(), book.getGenre(), book.getTotalCopies(),
+                        book.getAvailableCopies()))
+                .toList();
+        entityPage = new CursorPageResponse<>(books, pageSize, (long) pageSize);
+        summaryPage = new CursorPageResponse<>(summaries, pageSize, (long) pageSize);
+        idAndTitle = BookSummaryResponse.FIELDS.select("id,title");
+    }
+
+    @Benchmark
+    public byte[] entities() {
+        return objectMapper.writeValueAsBytes(entityPage);
+    }
+
+    @Benchmark
+    public byte[] summaries() {
+        return objectMapper.writeValueAsBytes(summaryPage);
+    }
+
+    @Benchmark
+    public byte[] sparseFields() {
+        return objectMapper.writeValueAsBytes(idAndTitle.apply(summaryPage));
+    }
+}
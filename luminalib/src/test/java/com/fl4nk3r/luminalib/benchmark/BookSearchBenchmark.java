@@ -0,0 +1,121 @@
+package com.fl4nk3r.luminalib.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fl4nk3r.luminalib.entity.Book;
+import com.fl4nk3r.luminalib.search.BookSearchIndex;
+import com.fl4nk3r.luminalib.search.TextNormalizer;
+
+/**
+ * Keyword search latency at several catalog sizes: the in-memory
+ * {@link BookSearchIndex}, the {@code upper(..) like upper('%kw%')} query that
+ * the database search used to issue, and the two index range scans on the
+ * normalized title and author it issues now, all returning every match.
+ * The 1M catalog needs the 3 GB heap, and each of its trials spends about
+ * 100 seconds building the index and the H2 table; on one CPU it measured
+ * 7-40 ms for the index, 0.85-1.5 s for the like query and 2-24 ms for the
+ * prefix queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class BookSearchBenchmark {
+
+    private static final String LIKE_QUERY = "select id from books "
+            + "where upper(title) like upper(?) escape '\\' or upper(author) like upper(?) escape '\\'";
+    private static final String TITLE_PREFIX_QUERY = "select id from books where normalized_title like ? escape '\\' "
+            + "order by normalized_title";
+    private static final String AUTHOR_PREFIX_QUERY = "select id from books where normalized_author like ? "
+            + "escape '\\' order by normalized_author";
+
+    @Param({ "10000", "100000", "1000000" })
+    private int catalogSize;
+
+    @Param({ "orchard", "stone", "lant", "hana holm" })
+    private String keyword;
+
+    private BookSearchIndex index;
+    private Connection connection;
+    private PreparedStatement likeStatement;
+    private PreparedStatement titlePrefixStatement;
+    private PreparedStatement authorPrefixStatement;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        List<Book> books = BenchmarkData.books(catalogSize);
+        index = new BookSearchIndex();
+        books.forEach(index::index);
+        index.markReady();
+        connection = BenchmarkData.h2Catalog("search" + catalogSize, books);
+        likeStatement = connection.prepareStatement(LIKE_QUERY);
+        titlePrefixStatement = connection.prepareStatement(TITLE_PREFIX_QUERY);
+        authorPrefixStatement = connection.prepareStatement(AUTHOR_PREFIX_QUERY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        likeStatement.close();
+        titlePrefixStatement.close();
+        authorPrefixStatement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Long> invertedIndex() {
+        return index.search(keyword, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public List<Long> likeQuery() throws SQLException {
+        String pattern = "%" + keyword + "%";
+        likeStatement.setString(1, pattern);
+        likeStatement.setString(2, pattern);
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet resultSet = likeStatement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public Set<Long> prefixQueries() throws SQLException {
+        String pattern = TextNormalizer.normalize(keyword) + "%";
+        Set<Long> ids = new LinkedHashSet<>();
+        for (PreparedStatement statement : List.of(titlePrefixStatement, authorPrefixStatement)) {
+            statement.setString(1, pattern);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,53 @@
+package com.fl4nk3r.luminalib.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fl4nk3r.luminalib.dto.response.SuggestionResponse;
+import com.fl4nk3r.luminalib.search.SuggestionIndex;
+
+/**
+ * Typeahead latency of {@link SuggestionIndex}: top 10 completions for
+ * prefixes from one keystroke to a few words.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class BookSuggestBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    private int catalogSize;
+
+    @Param({ "s", "sil", "hana h", "golden river s" })
+    private String prefix;
+
+    private SuggestionIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new SuggestionIndex();
+        BenchmarkData.books(catalogSize).forEach(index::index);
+        index.markReady();
+    }
+
+    @Benchmark
+    public List<SuggestionResponse> suggest() {
+        return index.suggest(prefix, SuggestionIndex.MAX_SUGGESTIONS);
+    }
+}
@@ -0,0 +1,234 @@
+package com.fl4nk3r.luminalib.benchmark;
+
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fl4nk3r.luminalib.LuminalibApplication;
+import com.fl4nk3r.luminalib.dto.response.LoanResponse;
+import com.fl4nk3r.luminalib.entity.Book;
+import com.fl4nk3r.luminalib.entity.User;
+import com.fl4nk3r.luminalib.exception.BadRequestException;
+import com.fl4nk3r.luminalib.repository.BookRepository;
+import com.fl4nk3r.luminalib.repository.UserRepository;
+import com.fl4nk3r.luminalib.service.BookService;
+import com.fl4nk3r.luminalib.service.LoanService;
+
+/**
+ * Borrow/return throughput with 32 threads working on the same popular
+ * title, through the application's own services on in-memory H2.
+ * {@code loan} is the path behind {@code POST /api/loans} and
+ * {@code POST /api/loans/{id}/return}: {@link LoanService#borrow} takes a
+ * copy with the conditional update of {@code BookRepository.checkoutCopy}
+ * and records the loan, and {@link LoanService#returnLoan} puts the copy back
+ * with {@code returnCopy} and closes the loan.
+ * {@code conditionalUpdate} runs the same two repository updates on their
+ * own, without the loan ledger, and {@code entityReadModifyWrite} changes
+ * availableCopies the way {@code BookService.updateBook} did before there
+ * were checkouts: load the book, change it and save it. The version check turns what used to be lost
+ * updates into optimistic locking conflicts, which the caller gets as a 409;
+ * a conflicting checkout is not retried, a conflicting return is retried
+ * until it goes through.
+ * Each operation checks a copy out and, if it got one, returns it. The title
+ * has fewer copies than there are threads, so some checkouts find none
+ * available. The per-thread counters report how many operations borrowed,
+ * found no copy, or hit a conflict. The tear-down fails the run if
+ * availableCopies left its bounds or a loan was left open.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+@Threads(32)
+public class CopyCheckoutBenchmark {
+
+    private static final int DESKS = 32;
+    private static final int COPIES = 16;
+
+    private ConfigurableApplicationContext context;
+    private LoanService loanService;
+    private BookRepository bookRepository;
+    private TransactionTemplate transaction;
+    private JdbcTemplate jdbcTemplate;
+    private Long popularId;
+    private final AtomicInteger nextDesk = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        byte[] secret = new byte[32];
+        ThreadLocalRandom.current().nextBytes(secret);
+        context = new SpringApplicationBuilder(LuminalibApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:checkout;MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+                                + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.hikari.maximum-pool-size=" + DESKS,
+                        "--spring.jpa.show-sql=false",
+                        "--jwt.secret=" + Base64.getEncoder().encodeToString(secret),
+                        "--jwt.expiration=3600000",
+                        "--logging.level.root=WARN");
+        loanService = context.getBean(LoanService.class);
+        bookRepository = context.getBean(BookRepository.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        context.getBean(UserRepository.class).saveAll(IntStream.range(0, DESKS)
+                .mapToObj(i -> User.builder()
+                        .email(email(i))
+                        .firstName("Desk")
+                        .lastName(String.valueOf(i))
+                        .password("unused")
+                        .role("ROLE_USER")
+                        .build())
+                .toList());
+        Book book = BenchmarkData.books(1).get(0);
+        book.setId(null);
+        book.setTotalCopies(COPIES);
+        book.setAvailableCopies(COPIES);
+        popularId = context.getBean(BookService.class).createBook(book).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        try {
+            int available = jdbcTemplate.queryForObject("select available_copies from books where id = ?",
+                    Integer.class, popularId);
+            if (available != COPIES) {
+                throw new IllegalStateException("Expected " + COPIES + " available copies, found " + available);
+            }
+            int open = jdbcTemplate.queryForObject("select count(*) from loans where returned_at is null",
+                    Integer.class);
+            if (open != 0) {
+                throw new IllegalStateException(open + " loans were left open");
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * One borrower per benchmark thread, like one librarian's desk
+     */
+    @State(Scope.Thread)
+    public static class Desk {
+        String email;
+
+        @Setup(Level.Trial)
+        public void open(CopyCheckoutBenchmark benchmark) {
+            email = email(benchmark.nextDesk.getAndIncrement() % DESKS);
+        }
+    }
+
+    /**
+     * Outcomes of the operations, reported as rates next to the throughput
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+        public long borrowed;
+        public long unavailable;
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            borrowed = 0;
+            unavailable = 0;
+            conflicts = 0;
+        }
+    }
+
+    @Benchmark
+    public LoanResponse loan(Desk desk, Outcomes outcomes) {
+        LoanResponse loan;
+        try {
+            loan = loanService.borrow(desk.email, popularId);
+        } catch (BadRequestException e) {
+            outcomes.unavailable++;
+            return null;
+        }
+        outcomes.borrowed++;
+        return loanService.returnLoan(loan.id(), desk.email, false);
+    }
+
+    @Benchmark
+    public boolean conditionalUpdate(Outcomes outcomes) {
+        if (transaction.execute(status -> bookRepository.checkoutCopy(popularId)) == 0) {
+            outcomes.unavailable++;
+            return false;
+        }
+        outcomes.borrowed++;
+        return transaction.execute(status -> bookRepository.returnCopy(popularId)) == 1;
+    }
+
+    @Benchmark
+    public boolean entityReadModifyWrite(Outcomes outcomes) {
+        int taken;
+        try {
+            taken = transaction.execute(status -> adjust(-1));
+        } catch (OptimisticLockingFailureException e) {
+            outcomes.conflicts++;
+            return false;
+        }
+        if (taken == 0) {
+            outcomes.unavailable++;
+            return false;
+        }
+        outcomes.borrowed++;
+        while (true) {
+            try {
+                transaction.executeWithoutResult(status -> adjust(1));
+                return true;
+            } catch (OptimisticLockingFailureException e) {
+                outcomes.conflicts++;
+            }
+        }
+    }
+
+    /**
+     * Load the book, move availableCopies by delta if it stays within bounds
+     * and save it
+     *
+     * @return 1 if the book was changed, 0 if the change was out of bounds
+     */
+    private int adjust(int delta) {
+        Book book = bookRepository.findCurrentById(popularId).orElseThrow();
+        int next = book.getAvailableCopies() + delta;
+        if (next < 0 || next > book.getTotalCopies()) {
+            return 0;
+        }
+        book.setAvailableCopies(next);
+        bookRepository.saveAndFlush(book);
+        return 1;
+    }
+
+    private static String email(int desk) {
+        return "desk-" + desk + "@example.com";
+    }
+}
@@ -0,0 +1,109 @@
+package com.fl4nk3r.luminalib.benchmark;
+
+import java.security.Key;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fl4nk3r.luminalib.entity.User;
+import com.fl4nk3r.luminalib.security.Hs256TokenVerifier;
+import com.fl4nk3r.luminalib.security.TokenDenylist;
+import com.fl4nk3r.luminalib.service.JwtService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Cost of issuing a token on login or registration
+ * ({@link JwtService#generateToken(User)}), and of authenticating one request
+ * carrying a bearer token: the previous
+ * path (subject, then subject and expiration again, each a full parse and
+ * HMAC check with a freshly decoded key), a single such parse as
+ * {@code JwtUtils.extractAllClaims} does it, a single parse with the cached
+ * parser, {@link Hs256TokenVerifier} for a token seen for the first time,
+ * and {@link JwtService#verify(String)} for a token it has already verified.
+ * Run with the JMH gc profiler ({@code -prof gc}) to compare allocations per
+ * operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class JwtVerificationBenchmark {
+
+    private String secret;
+    private String token;
+    private JwtService jwtService;
+    private User user;
+    private JwtParser parser;
+    private Hs256TokenVerifier verifier;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        secret = Base64.getEncoder().encodeToString(new byte[32]);
+        jwtService = new JwtService(new TokenDenylist(Duration.ofMinutes(1)));
+        ReflectionTestUtils.setField(jwtService, "secretKey", secret);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheSize", 10_000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+        user = User.builder().email("reader@example.com").role("ROLE_USER").tokenVersion(0L).build();
+        token = jwtService.generateToken(user);
+        parser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret))).build();
+        verifier = new Hs256TokenVerifier(Decoders.BASE64.decode(secret));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean threeParses() {
+        String subject = parse().getSubject();
+        return subject.equals(parse().getSubject()) && !parse().getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public String extractAllClaims() {
+        return parse().getSubject();
+    }
+
+    @Benchmark
+    public String singleParse() {
+        return parser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public String hs256Verifier() {
+        return verifier.verify(token).subject();
+    }
+
+    @Benchmark
+    public String cachedVerify() {
+        return jwtService.verify(token).subject();
+    }
+
+    private Claims parse() {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+}
@@ -0,0 +1,151 @@
+package com.fl4nk3r.luminalib.benchmark;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import com.fl4nk3r.luminalib.LuminalibApplication;
+import com.fl4nk3r.luminalib.dto.response.ErrorResponse;
+import com.fl4nk3r.luminalib.exception.ErrorBodyTemplate;
+import com.fl4nk3r.luminalib.exception.ResourceNotFoundException;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Throughput of 404 responses for book ids that do not exist, as a scraper
+ * walking {@code /api/books/{id}} produces them: the whole request through
+ * {@code springSecurityFilterChain} and the {@link DispatcherServlet}, and
+ * the two parts of the error path on their own, each the way it was done
+ * before and the way it is done now.
+ * {@code request} runs against the application as built, so comparing it
+ * across commits (see {@code target/jmh-result.json}) gives the before and
+ * after of the whole request; it takes a long warmup before the request
+ * path is fully compiled. Exceptions are thrown from {@code depth}
+ * frames down, as filling in a stack trace costs in proportion to the depth
+ * and a request thread's stack is deep.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class NotFoundBenchmark {
+
+    @Param({ "150" })
+    private int depth;
+
+    private ConfigurableApplicationContext context;
+    private final MockServletContext servletContext = new MockServletContext();
+    private Filter securityFilterChain;
+    private FilterChain dispatcher;
+    private JsonMapper jsonMapper;
+    private final ErrorBodyTemplate template = new ErrorBodyTemplate(HttpStatus.NOT_FOUND, "Resource not found: ");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        byte[] secret = new byte[32];
+        ThreadLocalRandom.current().nextBytes(secret);
+        context = new SpringApplicationBuilder(LuminalibApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:notfound;MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+                                + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.mvc.servlet.load-on-startup=1",
+                        "--jwt.secret=" + Base64.getEncoder().encodeToString(secret),
+                        "--jwt.expiration=3600000",
+                        "--logging.level.root=WARN");
+        securityFilterChain = context.getBean("springSecurityFilterChain", Filter.class);
+        DispatcherServlet servlet = context.getBean(DispatcherServlet.class);
+        dispatcher = servlet::service;
+        jsonMapper = context.getBean(JsonMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Warmup(iterations = 10, time = 10)
+    public int request() throws IOException, ServletException {
+        long id = 1_000_000 + ThreadLocalRandom.current().nextInt(1_000_000);
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/api/books/" + id);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        securityFilterChain.doFilter(request, response, dispatcher);
+        return response.getContentLength();
+    }
+
+    @Benchmark
+    public Object exceptionWithStackTrace() {
+        return thrown(depth, true);
+    }
+
+    @Benchmark
+    public Object exceptionStackless() {
+        return thrown(depth, false);
+    }
+
+    @Benchmark
+    public byte[] jacksonBody() {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND)
+                .errorMessage("Resource not found: " + "Book not found with id: " + 1234567)
+                .path("/api/books/1234567")
+                .build();
+        return jsonMapper.writeValueAsBytes(errorResponse);
+    }
+
+    @Benchmark
+    public byte[] templateBody() {
+        return template.render(LocalDateTime.now(), "Book not found with id: " + 1234567, "/api/books/1234567");
+    }
+
+    private static ResourceNotFoundException thrown(int frames, boolean stackTrace) {
+        try {
+            fail(frames, stackTrace);
+            return null;
+        } catch (ResourceNotFoundException e) {
+            return e;
+        }
+    }
+
+    private static void fail(int frames, boolean stackTrace) {
+        if (frames > 0) {
+            fail(frames - 1, stackTrace);
+            return;
+        }
+        String message = "Book not found with id: " + 1234567;
+        throw stackTrace ? new ResourceNotFoundException(message) : ResourceNotFoundException.stackless(message);
+    }
+}
@@ -0,0 +1,251 @@
+package com.fl4nk3r.luminalib.benchmark;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.fl4nk3r.luminalib.LuminalibApplication;
+import com.fl4nk3r.luminalib.dto.request.RegisterRequest;
+import com.fl4nk3r.luminalib.entity.Book;
+import com.fl4nk3r.luminalib.service.AuthService;
+import com.fl4nk3r.luminalib.service.BookService;
+
+/**
+ * Load test comparing request handling on platform threads and on virtual
+ * threads ({@code spring.threads.virtual.enabled}).
+ * Boots the application on a random port against in-memory H2, adding a
+ * fixed delay to every statement so that requests spend their time blocked
+ * on the database the way they do against MySQL, then drives
+ * {@code GET /api/books} and {@code POST /api/auth/login} from a fixed number
+ * of concurrent clients and prints throughput and latency percentiles.
+ * Each mode runs in its own JVM:
+ * {@code ./mvnw -Ploadtest verify [-Dloadtest.clients=400]
+ * [-Dloadtest.seconds=20] [-Dloadtest.db-latency-ms=5]}.
+ * The virtual-thread run also prints the stack of any virtual thread that
+ * blocks while pinned to its carrier.
+ */
+public final class ThreadModeLoadBenchmark {
+
+    private static final int BOOKS = 2_000;
+    private static final int USERS = 50;
+    private static final String PASSWORD = "load-test-password";
+
+    private ThreadModeLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean virtual = Boolean.getBoolean("loadtest.virtual");
+        int clients = Integer.getInteger("loadtest.clients", 400);
+        Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.seconds", 20));
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 5));
+        long dbLatencyMillis = Long.getLong("loadtest.db-latency-ms", 5);
+
+        byte[] secret = new byte[32];
+        ThreadLocalRandom.current().nextBytes(secret);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(LuminalibApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new StatementLatency(dbLatencyMillis)))
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+                                + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--jwt.secret=" + Base64.getEncoder().encodeToString(secret),
+                        "--jwt.expiration=3600000",
+                        "--luminalib.auth.hashing-queue=100000",
+                        "--luminalib.auth.login-limit.email-burst=1000000",
+                        "--luminalib.auth.login-limit.address-burst=1000000",
+                        "--logging.level.root=WARN");
+        try {
+            seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port;
+            String mode = virtual ? "virtual" : "platform";
+
+            ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor();
+            HttpClient http = HttpClient.newBuilder().executor(clientThreads).build();
+            Map<String, IntFunction<HttpRequest>> endpoints = new LinkedHashMap<>();
+            endpoints.put("GET /api/books", client -> HttpRequest.newBuilder(URI.create(base + "/api/books?size=20"
+                    + "&after=" + ThreadLocalRandom.current().nextInt(BOOKS - 20))).GET().build());
+            endpoints.put("POST /api/auth/login", client -> HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + email(client % USERS)
+                            + "\",\"password\":\"" + PASSWORD + "\"}"))
+                    .build());
+
+            System.out.printf("mode=%s clients=%d duration=%ss db-latency=%dms cpus=%d%n", mode, clients,
+                    duration.toSeconds(), dbLatencyMillis, Runtime.getRuntime().availableProcessors());
+            for (Map.Entry<String, IntFunction<HttpRequest>> endpoint : endpoints.entrySet()) {
+                drive(http, clients, warmup, endpoint.getValue());
+                Result result = drive(http, clients, duration, endpoint.getValue());
+                System.out.printf("mode=%-8s %-20s requests=%d errors=%s throughput=%.0f/s p50=%.1fms "
+                        + "p99=%.1fms max=%.1fms%n", mode, endpoint.getKey(), result.requests(), result.errors(),
+                        result.requests() / (double) duration.toSeconds(), result.percentile(0.50),
+                        result.percentile(0.99), result.percentile(1.0));
+            }
+            clientThreads.shutdownNow();
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        Map<Integer, Book> rows = new LinkedHashMap<>();
+        for (Book book : BenchmarkData.books(BOOKS)) {
+            book.setId(null);
+            book.setVersion(null);
+            rows.put(rows.size(), book);
+        }
+        context.getBean(BookService.class).importBooks(rows);
+
+        AuthService authService = context.getBean(AuthService.class);
+        for (int i = 0; i < USERS; i++) {
+            RegisterRequest request = new RegisterRequest();
+            request.setEmail(email(i));
+            request.setPassword(PASSWORD);
+            request.setFirstName("Load");
+            request.setLastName("Test");
+            authService.register(request, "127.0.0.1");
+        }
+    }
+
+    private static String email(int i) {
+        return "reader" + i + "@load.test";
+    }
+
+    /**
+     * Send requests from {@code clients} concurrent clients for the given
+     * duration, each waiting for its response before sending the next
+     */
+    private static Result drive(HttpClient http, int clients, Duration duration,
+            IntFunction<HttpRequest> request) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        List<long[]> latencies = new ArrayList<>(clients);
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            long[][] own = { new long[1024] };
+            int[] count = { 0 };
+            Thread thread = Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request.apply(client),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 300) {
+                            errors.computeIfAbsent(Integer.toString(response.statusCode()), k -> new LongAdder())
+                                    .increment();
+                        }
+                    } catch (Exception e) {
+                        errors.computeIfAbsent(e.getClass().getSimpleName(), k -> new LongAdder()).increment();
+                        if (e instanceof InterruptedException) {
+                            return;
+                        }
+                    }
+                    if (count[0] == own[0].length) {
+                        own[0] = Arrays.copyOf(own[0], count[0] * 2);
+                    }
+                    own[0][count[0]++] = System.nanoTime() - start;
+                }
+                synchronized (latencies) {
+                    latencies.add(Arrays.copyOf(own[0], count[0]));
+                }
+            });
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, new TreeMap<>(errors));
+    }
+
+    private record Result(long[] sortedNanos, Map<String, LongAdder> errors) {
+
+        long requests() {
+            return sortedNanos.length;
+        }
+
+        double percentile(double p) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sortedNanos.length - 1, Math.ceil(p * sortedNanos.length) - 1);
+            return sortedNanos[Math.max(0, index)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+
+    /**
+     * Delays every statement execution by a fixed time, standing in for the
+     * network round trip to a real database server
+     */
+    private record StatementLatency(long millis) implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (millis <= 0 || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return delayed(Connection.class, super.getConnection());
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T delayed(Class<T> type, T target) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                    (proxy, method, methodArgs) -> {
+                        if (target instanceof Statement && method.getName().startsWith("execute")) {
+                            Thread.sleep(millis);
+                        }
+                        Object result;
+                        try {
+                            result = method.invoke(target, methodArgs);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        if (result instanceof Statement statement
+                                && Statement.class.isAssignableFrom(method.getReturnType())) {
+                            return delayed((Class<Statement>) method.getReturnType(), statement);
+                        }
+                        return result;
+                    });
+        }
+    }
+}
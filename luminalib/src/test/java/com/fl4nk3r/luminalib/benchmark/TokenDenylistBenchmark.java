@@ -0,0 +1,68 @@
+package com.fl4nk3r.luminalib.benchmark;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fl4nk3r.luminalib.security.TokenDenylist;
+import com.fl4nk3r.luminalib.security.TokenDigest;
+
+/**
+ * Revocation check of {@link TokenDenylist} with revoked tokens spread over
+ * an hour of expirations: a live token (the common case, answered by the
+ * Bloom filter) and a revoked one (confirmed against the exact set).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class TokenDenylistBenchmark {
+
+    @Param({ "1000", "100000" })
+    private int revokedTokens;
+
+    private TokenDenylist denylist;
+    private TokenDigest live;
+    private TokenDigest revoked;
+    private Date expiresAt;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        denylist = new TokenDenylist(Duration.ofMinutes(1));
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        expiresAt = new Date(now + TimeUnit.MINUTES.toMillis(30));
+        for (int i = 0; i < revokedTokens; i++) {
+            revoked = new TokenDigest(random.nextLong(), random.nextLong());
+            denylist.revoke(revoked, new Date(now + TimeUnit.MINUTES.toMillis(1 + i % 60)));
+        }
+        denylist.revoke(revoked, expiresAt);
+        live = new TokenDigest(random.nextLong(), random.nextLong());
+    }
+
+    @Benchmark
+    public boolean liveToken() {
+        return denylist.isRevoked(live, expiresAt);
+    }
+
+    @Benchmark
+    public boolean revokedToken() {
+        return denylist.isRevoked(revoked, expiresAt);
+    }
+}
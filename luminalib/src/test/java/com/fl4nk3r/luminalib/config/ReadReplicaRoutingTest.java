@@ -0,0 +1,127 @@
+package com.fl4nk3r.luminalib.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Runs the application against two embedded H2 databases, a primary and a
+ * replica, and checks which one serves read-only transactions: the replica
+ * while it answers and keeps up, the primary while its lag is above the
+ * maximum or its pool is gone, and the replica again once a probe sees it
+ * caught up.
+ * The replica reports its lag from a one-row table the test writes to. The
+ * background probe is set to a long interval so that only the test's own
+ * {@link ReplicaDataSource#check()} calls change the routing.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "luminalib.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "luminalib.datasource.replica.lag-query=select seconds from replica_lag",
+        "luminalib.datasource.replica.max-lag=5s",
+        "luminalib.datasource.replica.check-interval=1h" })
+class ReadReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate replicaAdmin = new JdbcTemplate(
+            new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private ReplicaDataSource replicaDataSource;
+
+    @Autowired
+    private HikariDataSource replicaPoolDataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Give the replica the application's schema, as replication would, plus
+     * the table its lag is read from
+     */
+    @DynamicPropertySource
+    static void replicaSchema(DynamicPropertyRegistry registry) {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+        replicaAdmin.execute("create table if not exists replica_lag (seconds int)");
+        replicaAdmin.update("delete from replica_lag");
+        replicaAdmin.update("insert into replica_lag (seconds) values (0)");
+    }
+
+    @AfterEach
+    void catchUp() {
+        replicaAdmin.update("update replica_lag set seconds = 0");
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        replicaDataSource.check();
+
+        assertThat(readOnlyDatabase()).isEqualTo("routing-replica");
+        assertThat(readWriteDatabase()).isEqualTo("routing-primary");
+    }
+
+    @Test
+    void lagAboveTheMaximumSendsReadsToThePrimaryUntilTheReplicaCatchesUp() {
+        replicaAdmin.update("update replica_lag set seconds = 60");
+        replicaDataSource.check();
+
+        assertThat(replicaDataSource.isUsable()).isFalse();
+        assertThat(readOnlyDatabase()).isEqualTo("routing-primary");
+
+        replicaAdmin.update("update replica_lag set seconds = 1");
+        replicaDataSource.check();
+
+        assertThat(replicaDataSource.isUsable()).isTrue();
+        assertThat(readOnlyDatabase()).isEqualTo("routing-replica");
+    }
+
+    @Test
+    @DirtiesContext
+    void closedReplicaPoolSendsReadsToThePrimary() {
+        replicaDataSource.check();
+        replicaPoolDataSource.close();
+
+        assertThat(readOnlyDatabase()).isEqualTo("routing-primary");
+        assertThat(replicaDataSource.isUsable()).isFalse();
+
+        replicaDataSource.check();
+
+        assertThat(readOnlyDatabase()).isEqualTo("routing-primary");
+    }
+
+    private String readOnlyDatabase() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> currentDatabase());
+    }
+
+    private String readWriteDatabase() {
+        return new TransactionTemplate(transactionManager).execute(status -> currentDatabase());
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("select database()", String.class).toLowerCase();
+    }
+}
@@ -0,0 +1,290 @@
+package com.fl4nk3r.luminalib.controller;
+
+import static com.fl4nk3r.luminalib.support.SqlStatementRecorder.assertAtMost;
+import static com.fl4nk3r.luminalib.support.SqlStatementRecorder.record;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.fl4nk3r.luminalib.config.CacheConfig;
+import com.fl4nk3r.luminalib.entity.Book;
+import com.fl4nk3r.luminalib.entity.User;
+import com.fl4nk3r.luminalib.repository.BookRepository;
+import com.fl4nk3r.luminalib.repository.UserRepository;
+import com.fl4nk3r.luminalib.service.BookService;
+import com.fl4nk3r.luminalib.service.JwtService;
+import com.fl4nk3r.luminalib.support.SqlStatementRecorder.Recorded;
+import com.jayway.jsonpath.JsonPath;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Holds every endpoint of {@link BookController}, {@link UserController},
+ * {@link LoanController} and {@link AuthController} to a budget of SQL
+ * statements per request.
+ * Runs against the Flyway schema on an embedded H2 database. The book cache
+ * and Hibernate's second-level cache are emptied before each test, so reads
+ * are measured cold; the token version of each caller is looked up once
+ * beforehand, as it is kept for jwt.token-version-refresh.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.fl4nk3r.luminalib.support.SqlStatementRecorder",
+        "luminalib.auth.login-limit.email-burst=1000",
+        "luminalib.auth.login-limit.address-burst=1000" })
+@AutoConfigureMockMvc
+class EndpointQueryBudgetTest {
+
+    private static final int BOOKS = 50;
+    private static final String PASSWORD = "budget-password";
+    private static final String READER = "reader@example.com";
+    private static final String ADMIN = "admin@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long bookId;
+    private Long readerId;
+    private String readerToken;
+    private String adminToken;
+
+    @BeforeEach
+    void seed() throws Exception {
+        if (bookRepository.count() == 0) {
+            Map<Integer, Book> rows = new LinkedHashMap<>();
+            for (int i = 0; i < BOOKS; i++) {
+                rows.put(i, book(i));
+            }
+            bookService.importBooks(rows);
+            userRepository.save(user(READER, "ROLE_USER"));
+            userRepository.save(user(ADMIN, "ROLE_ADMIN"));
+        }
+        bookId = bookRepository.findByIsbn(isbn(0)).orElseThrow().getId();
+        readerId = userRepository.findByEmail(READER).orElseThrow().getId();
+        readerToken = token(READER);
+        adminToken = token(ADMIN);
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, bearer(readerToken)));
+        mockMvc.perform(get("/api/users/me").header(HttpHeaders.AUTHORIZATION, bearer(adminToken)));
+
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void bookReads() throws Exception {
+        expect(1, get("/api/books/{id}", bookId));
+        expect(1, get("/api/books").param("size", "20"));
+        expect(1, get("/api/books").param("after", bookId.toString()).param("fields", "id,title"));
+        expect(1, get("/api/books/stream"));
+        expect(1, get("/api/books/search").param("keyword", "title 1"));
+        expect(0, get("/api/books/suggest").param("prefix", "tit"));
+        expect(1, get("/api/books/genre/{genre}", "genre 3"));
+        expect(0, get("/api/books/genres"));
+    }
+
+    @Test
+    void bookExport() throws Exception {
+        expect(1, admin(get("/api/books/export")));
+        expect(1, admin(get("/api/books/export").param("format", "csv").header(HttpHeaders.ACCEPT_ENCODING, "gzip")));
+    }
+
+    @Test
+    void bookWrites() throws Exception {
+        expect(2, admin(post("/api/books").contentType(MediaType.APPLICATION_JSON).content(bookJson("new-1"))));
+        expect(2, admin(post("/api/books/batch").contentType(MediaType.APPLICATION_JSON)
+                .content("[" + bookJson("batch-1") + "," + bookJson("batch-2") + "," + bookJson("batch-3") + "]")));
+
+        Long id = bookRepository.findByIsbn("new-1").orElseThrow().getId();
+        expect(3, admin(put("/api/books/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                .content(bookJson("new-2"))));
+        expect(3, admin(delete("/api/books/{id}", id)));
+    }
+
+    @Test
+    void userEndpoints() throws Exception {
+        expect(1, get("/api/users/me").header(HttpHeaders.AUTHORIZATION, bearer(readerToken)));
+        expect(1, admin(get("/api/users")));
+        expect(1, admin(get("/api/users/{id}", readerId)));
+        expect(2, admin(post("/api/users/{id}/revoke-tokens", readerId)));
+    }
+
+    @Test
+    void authEndpoints() throws Exception {
+        expect(2, post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"new@example.com\",\"password\":\"" + PASSWORD
+                        + "\",\"firstName\":\"New\",\"lastName\":\"Reader\"}"));
+        expect(1, post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + READER + "\",\"password\":\"" + PASSWORD + "\"}"));
+        expect(0, post("/api/auth/logout").header(HttpHeaders.AUTHORIZATION, bearer(readerToken)));
+    }
+
+    @Test
+    void loanEndpoints() throws Exception {
+        MvcResult borrowed = expect(4, reader(post("/api/loans").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"bookId\":" + bookId + "}")));
+        Integer loanId = JsonPath.read(borrowed.getResponse().getContentAsString(), "$.id");
+        expect(1, reader(get("/api/loans/me")));
+        expect(1, admin(get("/api/loans/overdue")));
+        expect(4, reader(post("/api/loans/{id}/return", loanId)));
+    }
+
+    /**
+     * The loan endpoints are the checkout and return endpoints; their share
+     * of the budget on the books table is what checkout and return had on
+     * their own: the conditional update and the read of the new version,
+     * without loading the book
+     */
+    @Test
+    void loansMoveCopiesWithinTheCheckoutBudget() throws Exception {
+        Recorded borrowed = record(mockMvc, reader(post("/api/loans").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"bookId\":" + bookId + "}")));
+        assertThat(borrowed.result().getResponse().getStatus()).isEqualTo(201);
+        assertThat(bookStatements(borrowed)).as("checkout").hasSize(2)
+                .anyMatch(sql -> sql.startsWith("update books"));
+
+        Integer loanId = JsonPath.read(borrowed.result().getResponse().getContentAsString(), "$.id");
+        Recorded returned = record(mockMvc, reader(post("/api/loans/{id}/return", loanId)));
+        assertThat(returned.result().getResponse().getStatus()).isEqualTo(200);
+        assertThat(bookStatements(returned)).as("return").hasSize(2)
+                .anyMatch(sql -> sql.startsWith("update books"));
+    }
+
+    @Test
+    void loansEvictOnlyTheBookTheyChange() throws Exception {
+        Long otherId = bookRepository.findByIsbn(isbn(1)).orElseThrow().getId();
+        expect(1, get("/api/books/{id}", bookId));
+        expect(1, get("/api/books/{id}", otherId));
+        Cache secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        assertThat(secondLevelCache.containsEntity(Book.class, bookId)).isTrue();
+
+        MvcResult borrowed = expect(4, reader(post("/api/loans").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"bookId\":" + otherId + "}")));
+        Integer loanId = JsonPath.read(borrowed.getResponse().getContentAsString(), "$.id");
+        assertThat(secondLevelCache.containsEntity(Book.class, otherId)).as("borrowed book").isFalse();
+        expect(1, get("/api/books/{id}", otherId));
+
+        expect(4, reader(post("/api/loans/{id}/return", loanId)));
+        assertThat(secondLevelCache.containsEntity(Book.class, otherId)).as("returned book").isFalse();
+
+        assertThat(secondLevelCache.containsEntity(Book.class, bookId)).as("untouched book").isTrue();
+        assertThat(cacheManager.getCache(CacheConfig.BOOKS_CACHE).get(bookId)).as("untouched book").isNotNull();
+        expect(0, get("/api/books/{id}", bookId));
+    }
+
+    @Test
+    void tokenVersionIsLookedUpOncePerUser() throws Exception {
+        User reader = userRepository.findByEmail(READER).orElseThrow();
+        userRepository.save(user("late@example.com", "ROLE_USER"));
+        expect(2, get("/api/users/me").header(HttpHeaders.AUTHORIZATION, bearer(token("late@example.com"))));
+        expect(1, get("/api/users/me").header(HttpHeaders.AUTHORIZATION, bearer(jwtService.generateToken(reader))));
+    }
+
+    private MvcResult expect(int budget, MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = assertAtMost(mockMvc, budget, request);
+        assertThat(result.getResponse().getStatus()).as("status of %s", result.getRequest().getRequestURI())
+                .isLessThan(400);
+        return result;
+    }
+
+    private static List<String> bookStatements(Recorded recorded) {
+        return recorded.statements().stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> sql.matches("(?s).*\\bbooks\\b.*"))
+                .toList();
+    }
+
+    private MockHttpServletRequestBuilder reader(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, bearer(readerToken));
+    }
+
+    private MockHttpServletRequestBuilder admin(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, bearer(adminToken));
+    }
+
+    private String token(String email) {
+        return jwtService.generateToken(userRepository.findByEmail(email).orElseThrow());
+    }
+
+    private static String bearer(String token) {
+        return "Bearer " + token;
+    }
+
+    private static Book book(int i) {
+        Book book = new Book();
+        book.setTitle("Title " + i);
+        book.setAuthor("Author " + (i % 10));
+        book.setIsbn(isbn(i));
+        book.setPublicationYear(1900 + i);
+        book.setGenre("Genre " + (i % 5));
+        book.setTotalCopies(3);
+        book.setAvailableCopies(2);
+        return book;
+    }
+
+    private static String bookJson(String isbn) {
+        return "{\"title\":\"Budget\",\"author\":\"Jane Doe\",\"isbn\":\"" + isbn
+                + "\",\"publicationYear\":2001,\"genre\":\"Drama\",\"totalCopies\":3,\"availableCopies\":2}";
+    }
+
+    private User user(String email, String role) {
+        return User.builder()
+                .email(email)
+                .firstName("First")
+                .lastName("Last")
+                .password(passwordEncoder.encode(PASSWORD))
+                .role(role)
+                .build();
+    }
+
+    private static String isbn(int i) {
+        return String.format("978-%010d", i);
+    }
+}
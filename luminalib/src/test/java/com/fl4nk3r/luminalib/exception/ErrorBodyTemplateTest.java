@@ -0,0 +1,65 @@
+package com.fl4nk3r.luminalib.exception;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.fl4nk3r.luminalib.dto.response.ErrorResponse;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Checks that {@link ErrorBodyTemplate} writes the same bytes as Jackson does
+ * for the equivalent {@link ErrorResponse}
+ */
+class ErrorBodyTemplateTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void matchesJackson() {
+        List<LocalDateTime> timestamps = List.of(
+                LocalDateTime.of(2025, 2, 3, 4, 5, 6),
+                LocalDateTime.of(2025, 12, 31, 23, 59, 0, 100_000_000),
+                LocalDateTime.of(2025, 1, 1, 0, 0, 0, 123_456_789),
+                LocalDateTime.of(999, 1, 1, 0, 0, 0, 1_000),
+                LocalDateTime.of(12025, 6, 7, 8, 9, 10, 11));
+        List<String> texts = List.of("", "Book not found with id: 42", "quote \" and \\ backslash",
+                "tab\t newline\n return\r bell\u0007 nul\u0000 del\u007f", "ümlaut, 書, 😀",
+                "/api/books/%C3%A9%22x");
+
+        List<HttpStatus> statuses = List.of(HttpStatus.NOT_FOUND, HttpStatus.TOO_MANY_REQUESTS,
+                HttpStatus.SERVICE_UNAVAILABLE);
+
+        for (HttpStatus status : statuses) {
+            for (LocalDateTime timestamp : timestamps) {
+                for (String prefix : texts) {
+                    ErrorBodyTemplate template = new ErrorBodyTemplate(status, prefix);
+                    for (String text : texts) {
+                        assertSameAsJackson(template, timestamp, prefix, text, text);
+                    }
+                    assertSameAsJackson(template, timestamp, prefix, null, "/api/books/1");
+                }
+            }
+        }
+    }
+
+    private void assertSameAsJackson(ErrorBodyTemplate template, LocalDateTime timestamp, String prefix,
+            String message, String path) {
+        ErrorResponse response = ErrorResponse.builder()
+                .timestamp(timestamp)
+                .status(template.getStatus())
+                .errorMessage(message == null ? prefix : prefix + message)
+                .path(path)
+                .build();
+        String expected = jsonMapper.writeValueAsString(response);
+        byte[] body = template.render(timestamp, message, path);
+        assertThat(new String(body, StandardCharsets.UTF_8)).isEqualTo(expected);
+        assertThat(body).isEqualTo(expected.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package com.fl4nk3r.luminalib.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fl4nk3r.luminalib.entity.Book;
+import com.fl4nk3r.luminalib.service.BookService;
+
+/**
+ * Starts the application on a database created before migrations were
+ * introduced, by ddl-auto=update from the original entities: tables and rows
+ * but no flyway_schema_history. Flyway must baseline it at V1 and apply every
+ * later migration, so that Hibernate's validation passes and the existing
+ * rows keep working.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + MigrationBaselineTest.URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=validate" })
+class MigrationBaselineTest {
+
+    static final String URL = "jdbc:h2:mem:baseline;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookService bookService;
+
+    @BeforeAll
+    static void createOriginalSchema() throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+                Statement statement = connection.createStatement()) {
+            statement.execute("create table books (id bigint not null auto_increment, title varchar(255) not null, "
+                    + "author varchar(255) not null, isbn varchar(255) not null, "
+                    + "publication_year integer not null, genre varchar(255) not null, "
+                    + "total_copies integer not null, available_copies integer not null, primary key (id), "
+                    + "unique (isbn))");
+            statement.execute("create table users (id bigint not null auto_increment, email varchar(255) not null, "
+                    + "first_name varchar(255) not null, last_name varchar(255) not null, "
+                    + "password varchar(255) not null, role varchar(255), primary key (id), unique (email))");
+            statement.execute("insert into books (title, author, isbn, publication_year, genre, total_copies, "
+                    + "available_copies) values ('Dune', 'Frank Herbert', '978-0441013593', 1965, 'Sci-Fi', 3, 3)");
+            statement.execute("insert into users (email, first_name, last_name, password, role) "
+                    + "values ('reader@example.com', 'First', 'Last', 'hash', 'ROLE_USER')");
+        }
+    }
+
+    @Test
+    void existingDatabaseIsBaselinedAndMigrated() {
+        List<String> migrations = jdbcTemplate.queryForList("select \"version\" || ' ' || \"type\" "
+                + "from \"flyway_schema_history\" where \"version\" is not null and \"success\" "
+                + "order by \"installed_rank\"", String.class);
+        assertThat(migrations).containsExactly("1 BASELINE", "2 SQL", "3 SQL", "4 SQL", "5 SQL", "6 SQL", "7 SQL");
+
+        Long existingId = jdbcTemplate.queryForObject("select id from books where isbn = '978-0441013593'",
+                Long.class);
+        Book existing = bookService.getBookById(existingId);
+        // Started at 0, then saved once by the backfill of the derived keys
+        assertThat(existing.getVersion()).isEqualTo(1L);
+        assertThat(existing.getGenreKey()).isEqualTo("sci-fi");
+        assertThat(jdbcTemplate.queryForObject("select token_version from users", Long.class)).isZero();
+
+        Book book = new Book();
+        book.setTitle("Emma");
+        book.setAuthor("Jane Austen");
+        book.setIsbn("978-0141439587");
+        book.setPublicationYear(1815);
+        book.setGenre("Fiction");
+        book.setTotalCopies(1);
+        book.setAvailableCopies(1);
+        assertThat(bookService.createBook(book).getId()).isGreaterThan(existingId);
+    }
+}
@@ -0,0 +1,224 @@
+package com.fl4nk3r.luminalib.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fl4nk3r.luminalib.entity.Book;
+import com.fl4nk3r.luminalib.entity.Loan;
+import com.fl4nk3r.luminalib.entity.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that every repository query is served by an index.
+ * The schema comes from the Flyway migrations, on an embedded H2 database in
+ * MySQL mode, and Hibernate validates it against the entities. Each query is
+ * run, the SQL Hibernate sends is captured, and the plan H2 reports for it
+ * with EXPLAIN must not contain a table scan.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:index-usage;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.fl4nk3r.luminalib.repository.RepositoryIndexUsageTest$StatementLog" })
+class RepositoryIndexUsageTest {
+
+    private static final int BOOKS = 200;
+    private static final int USERS = 50;
+    private static final int LOANS = 500;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Records the SQL of every statement Hibernate prepares
+     */
+    public static class StatementLog implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        if (bookRepository.count() == 0) {
+            transactionTemplate.executeWithoutResult(status -> {
+                bookRepository.saveAll(IntStream.range(0, BOOKS).mapToObj(this::book).toList());
+                userRepository.saveAll(IntStream.range(0, USERS).mapToObj(this::user).toList());
+            });
+            loanRepository.saveAll(IntStream.range(0, LOANS).mapToObj(this::loan).toList());
+            jdbcTemplate.execute("analyze");
+        }
+        // Cached entities and query results would hide the statements
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void bookQueriesUseAnIndex() {
+        assertUsesIndex("findById", () -> bookRepository.findById(7L));
+        assertUsesIndex("existsById", () -> bookRepository.existsById(7L));
+        assertUsesIndex("findByIsbn", () -> bookRepository.findByIsbn(isbn(7)));
+        assertUsesIndex("findExistingIsbns", () -> bookRepository.findExistingIsbns(List.of(isbn(1), isbn(2))));
+        assertUsesIndex("findByGenreKeyAndIdGreaterThan",
+                () -> bookRepository.findByGenreKeyAndIdGreaterThanOrderByIdAsc("genre-1", 10L, Limit.of(10)));
+        assertUsesIndex("countBooksByGenre", () -> bookRepository.countBooksByGenre());
+        assertUsesIndex("findByNormalizedTitleIsNull", () -> bookRepository.findByNormalizedTitleIsNull(Limit.of(10)));
+        assertUsesIndex("findVersionById", () -> bookRepository.findVersionById(7L));
+        assertUsesIndex("findByIdGreaterThan",
+                () -> bookRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(10)));
+        assertUsesIndex("findByIdIn", () -> bookRepository.findByIdIn(List.of(1L, 2L, 3L)));
+        assertUsesIndex("streamByIdGreaterThan",
+                () -> bookRepository.streamByIdGreaterThanOrderByIdAsc(190L).forEach(book -> { }));
+        assertUsesIndex("checkoutCopy", () -> bookRepository.checkoutCopy(7L));
+        assertUsesIndex("returnCopy", () -> bookRepository.returnCopy(7L));
+    }
+
+    @Test
+    void userQueriesUseAnIndex() {
+        assertUsesIndex("findByEmail", () -> userRepository.findByEmail(email(3)));
+        assertUsesIndex("findProfileByEmail", () -> userRepository.findProfileByEmail(email(3)));
+        assertUsesIndex("findProfileById", () -> userRepository.findProfileById(3L));
+        assertUsesIndex("findAllByOrderByIdAsc", () -> userRepository.findAllByOrderByIdAsc());
+        assertUsesIndex("findTokenVersionByEmail", () -> userRepository.findTokenVersionByEmail(email(3)));
+        assertUsesIndex("existsByEmail", () -> userRepository.existsByEmail(email(3)));
+        assertUsesIndex("incrementTokenVersion", () -> userRepository.incrementTokenVersion(email(3)));
+        assertUsesIndex("updatePassword", () -> userRepository.updatePassword(email(3), "hash"));
+    }
+
+    @Test
+    void loanQueriesUseAnIndex() {
+        assertUsesIndex("findById", () -> loanRepository.findById(7L));
+        assertUsesIndex("findByUserIdAndIdLessThan",
+                () -> loanRepository.findByUserIdAndIdLessThanOrderByIdDesc(3L, 400L, Limit.of(10)));
+        assertUsesIndex("findByReturnedAtIsNullAndDueAtBefore", "idx_loans_open",
+                () -> loanRepository.findByReturnedAtIsNullAndDueAtBeforeOrderByDueAtAscIdAsc(LocalDateTime.now(),
+                        Limit.of(10)));
+        assertUsesIndex("findOverdueAfter", "idx_loans_open", () -> loanRepository.findOverdueAfter(
+                LocalDateTime.now(), LocalDateTime.now().minusDays(30), 10L, Limit.of(10)));
+        assertUsesIndex("closeLoan", () -> loanRepository.closeLoan(7L, LocalDateTime.now()));
+        assertUsesIndex("existsByBookId", () -> loanRepository.existsByBookId(7L));
+    }
+
+    /**
+     * Run a repository call in a transaction, then EXPLAIN each statement it
+     * sent
+     */
+    private void assertUsesIndex(String query, Runnable call) {
+        assertUsesIndex(query, null, call);
+    }
+
+    /**
+     * Same, and checks that the plan reads the given index
+     */
+    private void assertUsesIndex(String query, String index, Runnable call) {
+        StatementLog.STATEMENTS.clear();
+        transactionTemplate.executeWithoutResult(status -> call.run());
+        List<String> statements = new ArrayList<>(StatementLog.STATEMENTS);
+        assertThat(statements).as("statements sent by %s", query).isNotEmpty();
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject("explain " + sql, String.class, parameters(sql));
+            assertThat(plan).as("plan of %s: %s", query, sql).doesNotContainIgnoringCase("tableScan");
+            if (index != null) {
+                assertThat(plan).as("plan of %s: %s", query, sql).containsIgnoringCase(index);
+            }
+        }
+    }
+
+    /**
+     * Values for the statement's parameters. H2 plans with the bound values,
+     * so a like pattern gets a trailing wildcard, as the prefix queries send
+     * it; without one H2 would plan an equality lookup.
+     */
+    private static Object[] parameters(String sql) {
+        List<Object> parameters = new ArrayList<>();
+        for (int i = sql.indexOf('?'); i >= 0; i = sql.indexOf('?', i + 1)) {
+            boolean like = sql.substring(0, i).stripTrailing().toLowerCase(Locale.ROOT).endsWith("like");
+            parameters.add(like ? "1%" : "1");
+        }
+        return parameters.toArray();
+    }
+
+    private Book book(int i) {
+        Book book = new Book();
+        book.setTitle("Title " + i);
+        book.setAuthor("Author " + (i % 40));
+        book.setIsbn(isbn(i));
+        book.setPublicationYear(1900 + i % 100);
+        book.setGenre("Genre " + (i % 10));
+        book.setTotalCopies(3);
+        book.setAvailableCopies(2);
+        return book;
+    }
+
+    private User user(int i) {
+        return User.builder()
+                .email(email(i))
+                .firstName("First")
+                .lastName("Last")
+                .password("hash")
+                .role("ROLE_USER")
+                .build();
+    }
+
+    /**
+     * Loans spread over every user and book, one in ten still open and half
+     * of those overdue
+     */
+    private Loan loan(int i) {
+        LocalDateTime borrowedAt = LocalDateTime.now().minusDays(LOANS - i);
+        return Loan.builder()
+                .userId(1L + i % USERS)
+                .bookId(1L + i % BOOKS)
+                .borrowedAt(borrowedAt)
+                .dueAt(borrowedAt.plusDays(14))
+                .returnedAt(i % 10 == 0 ? null : borrowedAt.plusDays(7))
+                .build();
+    }
+
+    private static String isbn(int i) {
+        return String.format("978-%010d", i);
+    }
+
+    private static String email(int i) {
+        return "reader" + i + "@example.com";
+    }
+}
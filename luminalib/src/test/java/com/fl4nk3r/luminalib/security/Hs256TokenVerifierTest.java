@@ -0,0 +1,179 @@
+package com.fl4nk3r.luminalib.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+import com.fl4nk3r.luminalib.service.JwtService;
+import com.fl4nk3r.luminalib.service.JwtService.VerifiedToken;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Checks that {@link Hs256TokenVerifier} rejects every token jjwt would
+ * reject, reads the same claims as jjwt, and leaves the tokens it does not
+ * handle to jjwt
+ */
+class Hs256TokenVerifierTest {
+
+    private static final String BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+    private static final String HEADER = "{\"alg\":\"HS256\"}";
+
+    private final byte[] secret = secret();
+    private final Hs256TokenVerifier verifier = new Hs256TokenVerifier(secret);
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(secret)).build();
+
+    @Test
+    void verifiesCanonicalToken() {
+        String token = token(secret, 3_600_000);
+        assertThat(verifier.verify(token).subject()).isEqualTo("reader@example.com");
+    }
+
+    @Test
+    void readsTheSameClaimsAsJjwt() {
+        long now = System.currentTimeMillis();
+        String token = Jwts.builder()
+                .claim(JwtService.ROLE_CLAIM, "ROLE_ADMIN")
+                .claim(JwtService.TOKEN_VERSION_CLAIM, 7)
+                .setId(UUID.randomUUID().toString())
+                .setSubject("admin@example.com")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(secret), SignatureAlgorithm.HS256)
+                .compact();
+
+        // The same mapping JwtService applies to the claims jjwt parses
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        VerifiedToken expected = new VerifiedToken(claims.getSubject(), claims.getExpiration(),
+                claims.get(JwtService.ROLE_CLAIM, String.class),
+                claims.get(JwtService.TOKEN_VERSION_CLAIM, Long.class), claims.getId());
+
+        assertThat(verifier.verify(token)).isEqualTo(expected);
+    }
+
+    @Test
+    void rejectsSignatureWithNonZeroTrailingBits() {
+        String token = token(secret, 3_600_000);
+        for (int bit = 0; bit < 2; bit++) {
+            char last = token.charAt(token.length() - 1);
+            char flipped = BASE64URL.charAt(BASE64URL.indexOf(last) ^ (1 << bit));
+            String variant = token.substring(0, token.length() - 1) + flipped;
+
+            assertThatThrownBy(() -> verifier.verify(variant)).as("bit %d flipped", bit)
+                    .isInstanceOf(JwtException.class);
+        }
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        String token = token(secret, -60_000);
+
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherKey() {
+        String token = token(secret(), 3_600_000);
+
+        assertThatThrownBy(() -> verifier.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsTamperedPayload() {
+        String[] parts = token(secret, 3_600_000).split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("ROLE_USER", "ROLE_ADMIN");
+        String tampered = parts[0] + "." + encode(payload) + "." + parts[2];
+
+        assertThatThrownBy(() -> verifier.verify(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void leavesTamperedHeaderToJjwt() {
+        String[] parts = token(secret, 3_600_000).split("\\.");
+        String tampered = encode("{\"alg\":\"none\"}") + "." + parts[1] + "." + parts[2];
+
+        assertThat(verifier.verify(tampered)).isNull();
+        assertThatThrownBy(() -> parser.parseClaimsJws(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void leavesOtherAlgorithmsToJjwt() {
+        String payload = "{\"sub\":\"reader@example.com\"}";
+
+        assertThat(verifier.verify(signed("{\"alg\":\"HS512\"}", payload))).isNull();
+        assertThat(verifier.verify(signed("{\"typ\":\"JWT\",\"alg\":\"HS256\"}", payload))).isNull();
+    }
+
+    @Test
+    void leavesPayloadsItCannotScanToJjwt() {
+        long now = System.currentTimeMillis() / 1000;
+        String[] payloads = {
+                "{\"sub\":\"reader@example.com\",\"nbf\":" + (now - 60) + "}",
+                "{\"sub\":\"reader\\\"@example.com\"}",
+                "{\"sub\":\"reader@example.com\",\"ctx\":{\"tv\":1}}",
+                "{\"sub\":\"reader@example.com\",\"aud\":[\"a\",\"b\"]}",
+                "{\"sub\":\"reader@example.com\",\"tv\":1.5}",
+        };
+        for (String payload : payloads) {
+            String token = signed(HEADER, payload);
+
+            assertThat(verifier.verify(token)).as(payload).isNull();
+            assertThat(parser.parseClaimsJws(token).getBody().getSubject()).as(payload).startsWith("reader");
+        }
+    }
+
+    private String token(byte[] key, long expiresIn) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .claim("role", "ROLE_USER")
+                .claim("tv", 0)
+                .setId(UUID.randomUUID().toString())
+                .setSubject("reader@example.com")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiresIn))
+                .signWith(Keys.hmacShaKeyFor(key), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * A token with the given header and payload, HMAC-SHA256 signed with the
+     * test secret whatever the header says
+     */
+    private String signed(String header, String payload) {
+        String content = encode(header) + "." + encode(payload);
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            byte[] signature = mac.doFinal(content.getBytes(StandardCharsets.US_ASCII));
+            return content + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] secret() {
+        byte[] secret = new byte[32];
+        ThreadLocalRandom.current().nextBytes(secret);
+        return secret;
+    }
+}
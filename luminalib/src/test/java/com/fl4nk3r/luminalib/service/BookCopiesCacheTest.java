@@ -0,0 +1,88 @@
+package com.fl4nk3r.luminalib.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fl4nk3r.luminalib.entity.Book;
+import com.fl4nk3r.luminalib.repository.BookRepository;
+
+/**
+ * Replays the race between a copy update and a reader of the same book: the
+ * reader reads the row before the checkout commits and puts it into the
+ * second-level cache after the checkout's evictions. Its snapshot is held
+ * with a repeatable-read transaction that reads before the checkout and
+ * loads the book after it has committed.
+ * The cache then holds the old availableCopies and version; an update of
+ * the book must still go through, based on the current row.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:book-copies-cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=validate" })
+class BookCopiesCacheTest {
+
+    private static final int COPIES = 4;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void updateAfterAReaderCachedThePreCheckoutRowIsNotAConflict() {
+        Long id = bookService.createBook(book()).getId();
+
+        TransactionTemplate reader = new TransactionTemplate(transactionManager);
+        reader.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        TransactionTemplate checkout = new TransactionTemplate(transactionManager);
+        checkout.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Book cachedByReader = reader.execute(status -> {
+            bookRepository.findVersionById(id);
+            checkout.executeWithoutResult(inner -> bookService.checkoutCopy(id));
+            return bookRepository.findById(id).orElseThrow();
+        });
+        assertThat(cachedByReader.getAvailableCopies()).as("the reader saw the row before the checkout")
+                .isEqualTo(COPIES);
+        assertThat(jdbcTemplate.queryForObject("select available_copies from books where id = ?", Integer.class, id))
+                .isEqualTo(COPIES - 1);
+
+        Book details = book();
+        details.setTitle("Popular Title, Second Edition");
+        details.setTotalCopies(COPIES + 1);
+        Book updated = bookService.updateBook(id, details);
+
+        assertThat(updated.getTotalCopies()).isEqualTo(COPIES + 1);
+        assertThat(updated.getAvailableCopies()).isEqualTo(COPIES);
+        assertThat(jdbcTemplate.queryForObject("select available_copies from books where id = ?", Integer.class, id))
+                .isEqualTo(COPIES);
+    }
+
+    private static Book book() {
+        Book book = new Book();
+        book.setTitle("Popular Title");
+        book.setAuthor("Jane Doe");
+        book.setIsbn("cache-race-" + System.nanoTime());
+        book.setPublicationYear(2020);
+        book.setGenre("Fiction");
+        book.setTotalCopies(COPIES);
+        book.setAvailableCopies(COPIES);
+        return book;
+    }
+}
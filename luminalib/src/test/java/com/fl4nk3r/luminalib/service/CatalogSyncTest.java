@@ -0,0 +1,83 @@
+package com.fl4nk3r.luminalib.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fl4nk3r.luminalib.entity.Book;
+import com.fl4nk3r.luminalib.search.BookSearchIndex;
+
+/**
+ * Writes to the books table behind the application's back, as another
+ * instance would, and checks that a sync brings the search index and the
+ * ETags up to date. The background sync is turned off so that only the
+ * test's own {@link CatalogIndexService#sync()} calls apply the changes.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalog-sync;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "luminalib.catalog.sync-interval=0" })
+class CatalogSyncTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CatalogIndexService catalogIndexService;
+
+    @Autowired
+    private CatalogVersionService catalogVersion;
+
+    @Autowired
+    private BookSearchIndex searchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void syncAppliesWritesMadeByAnotherInstance() {
+        Book renamed = bookService.createBook(book("Quiet Harbour"));
+        Book deleted = bookService.createBook(book("Lantern Keeper"));
+        catalogIndexService.sync();
+        String tagBefore = catalogVersion.catalogTag();
+
+        jdbcTemplate.update("update books set title = 'Stormy Harbour', normalized_title = 'stormy harbour', "
+                + "version = version + 1 where id = ?", renamed.getId());
+        jdbcTemplate.update("delete from books where id = ?", deleted.getId());
+        assertThat(searchIndex.search("stormy", 10)).as("not synced yet").isEmpty();
+
+        catalogIndexService.sync();
+
+        assertThat(searchIndex.search("stormy", 10)).containsExactly(renamed.getId());
+        assertThat(searchIndex.search("quiet", 10)).isEmpty();
+        assertThat(searchIndex.search("lantern", 10)).isEmpty();
+        assertThat(catalogVersion.bookTag(renamed.getId()))
+                .isEqualTo(CatalogVersionService.tagOf(bookService.getBookById(renamed.getId())))
+                .isNotEqualTo(CatalogVersionService.tagOf(renamed));
+        assertThat(catalogVersion.bookTag(deleted.getId())).isNull();
+        assertThat(catalogVersion.catalogTag()).isNotEqualTo(tagBefore);
+
+        String tagAfter = catalogVersion.catalogTag();
+        catalogIndexService.sync();
+
+        assertThat(catalogVersion.catalogTag()).as("nothing changed since").isEqualTo(tagAfter);
+    }
+
+    private static Book book(String title) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Jane Doe");
+        book.setIsbn("sync-" + System.nanoTime());
+        book.setPublicationYear(2020);
+        book.setGenre("Fiction");
+        book.setTotalCopies(1);
+        book.setAvailableCopies(1);
+        return book;
+    }
+}
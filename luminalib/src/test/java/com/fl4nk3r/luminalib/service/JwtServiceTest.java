@@ -0,0 +1,83 @@
+package com.fl4nk3r.luminalib.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fl4nk3r.luminalib.entity.User;
+import com.fl4nk3r.luminalib.security.TokenDenylist;
+
+import io.jsonwebtoken.JwtException;
+
+/**
+ * Checks that a revoked token stays revoked in every encoding of its
+ * signature
+ */
+class JwtServiceTest {
+
+    private static final String BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        byte[] secret = new byte[32];
+        ThreadLocalRandom.current().nextBytes(secret);
+        jwtService = new JwtService(new TokenDenylist(Duration.ofMinutes(1)));
+        ReflectionTestUtils.setField(jwtService, "secretKey", Base64.getEncoder().encodeToString(secret));
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheSize", 100L);
+        jwtService.init();
+    }
+
+    @Test
+    void revokedTokenIsRejectedInEveryEncoding() {
+        String token = jwtService.generateToken(user());
+        String variant = withLowBitFlipped(token);
+        assertThat(variant).isNotEqualTo(token);
+        assertThat(jwtService.verify(token).id()).isNotNull();
+
+        jwtService.revoke(token);
+
+        assertThatThrownBy(() -> jwtService.verify(token)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> jwtService.verify(variant)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void otherTokensOfTheUserStayValid() {
+        String revoked = jwtService.generateToken(user());
+        String other = jwtService.generateToken(user());
+
+        jwtService.revoke(revoked);
+
+        assertThat(jwtService.verify(other).subject()).isEqualTo("reader@example.com");
+    }
+
+    /**
+     * The last character of a 43-character signature carries 2 bits that
+     * decoding drops; flipping one gives another encoding of the same bytes
+     */
+    static String withLowBitFlipped(String token) {
+        char last = token.charAt(token.length() - 1);
+        char flipped = BASE64URL.charAt(BASE64URL.indexOf(last) ^ 1);
+        return token.substring(0, token.length() - 1) + flipped;
+    }
+
+    private static User user() {
+        return User.builder()
+                .id(1L)
+                .email("reader@example.com")
+                .firstName("First")
+                .lastName("Last")
+                .password("hash")
+                .role("ROLE_USER")
+                .build();
+    }
+}
@@ -0,0 +1,235 @@
+package com.fl4nk3r.luminalib.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fl4nk3r.luminalib.dto.response.LoanResponse;
+import com.fl4nk3r.luminalib.entity.Book;
+import com.fl4nk3r.luminalib.entity.User;
+import com.fl4nk3r.luminalib.exception.BadRequestException;
+import com.fl4nk3r.luminalib.repository.UserRepository;
+
+/**
+ * Borrows and returns copies of one popular title from hundreds of threads at
+ * once and checks the ledger afterwards: no more loans than copies, every
+ * copy either on the shelf or held by exactly one open loan, and no failure
+ * other than "no copy available" (no deadlock, lock timeout or constraint
+ * violation).
+ * Runs against the Flyway schema on an embedded H2 database in MySQL mode,
+ * with fewer connections than threads so that borrowers also queue for the
+ * pool, as they do under load.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:loan-concurrency;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.datasource.hikari.connection-timeout=60000" })
+class LoanConcurrencyTest {
+
+    private static final int BORROWERS = 400;
+    private static final int THREADS = 200;
+    private static final int COPIES = 60;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long bookId;
+
+    @BeforeEach
+    void seed() {
+        if (userRepository.count() == 0) {
+            userRepository.saveAll(IntStream.range(0, BORROWERS).mapToObj(LoanConcurrencyTest::user).toList());
+        }
+        Book book = new Book();
+        book.setTitle("Popular Title");
+        book.setAuthor("Jane Doe");
+        book.setIsbn("popular-" + System.nanoTime());
+        book.setPublicationYear(2020);
+        book.setGenre("Fiction");
+        book.setTotalCopies(COPIES);
+        book.setAvailableCopies(COPIES);
+        bookId = bookService.createBook(book).getId();
+    }
+
+    @Test
+    void concurrentBorrowsNeverOversell() throws Exception {
+        List<Callable<LoanResponse>> borrows = IntStream.range(0, BORROWERS)
+                .<Callable<LoanResponse>>mapToObj(i -> () -> loanService.borrow(email(i), bookId))
+                .toList();
+
+        List<Outcome> outcomes = runAtOnce(borrows);
+
+        assertThat(outcomes).filteredOn(Outcome::failed).allSatisfy(outcome -> assertThat(outcome.failure())
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("No copies"));
+        assertThat(outcomes).filteredOn(outcome -> !outcome.failed()).hasSize(COPIES);
+        assertLedgerBalanced();
+        assertThat(availableCopies()).isZero();
+    }
+
+    @Test
+    void concurrentBorrowsAndReturnsKeepTheLedgerBalanced() throws Exception {
+        List<LoanResponse> held = new ArrayList<>();
+        for (int i = 0; i < COPIES; i++) {
+            held.add(loanService.borrow(email(i), bookId));
+        }
+
+        // Every holder returns while everybody else tries to borrow, and each
+        // loan is returned twice, by its holder and by an admin
+        List<Callable<?>> calls = new ArrayList<>();
+        for (int i = 0; i < COPIES; i++) {
+            Long loanId = held.get(i).id();
+            String holder = email(i);
+            calls.add(() -> loanService.returnLoan(loanId, holder, false));
+            calls.add(() -> loanService.returnLoan(loanId, "admin@example.com", true));
+        }
+        for (int i = COPIES; i < BORROWERS; i++) {
+            String borrower = email(i);
+            calls.add(() -> loanService.borrow(borrower, bookId));
+        }
+        Collections.shuffle(calls);
+
+        List<Outcome> outcomes = runAtOnce(calls);
+
+        assertThat(outcomes).filteredOn(Outcome::failed).allSatisfy(outcome -> assertThat(outcome.failure())
+                .isInstanceOf(BadRequestException.class)
+                .message().containsAnyOf("No copies", "already returned"));
+        assertThat(outcomes).filteredOn(Outcome::failed)
+                .filteredOn(outcome -> outcome.failure().getMessage().contains("already returned"))
+                .as("second returns of a loan").hasSize(COPIES);
+        assertThat(held).allSatisfy(loan -> assertThat(jdbcTemplate.queryForObject(
+                "select returned_at from loans where id = ?", Object.class, loan.id())).isNotNull());
+        assertLedgerBalanced();
+    }
+
+    @Test
+    void bookUpdateWhileALoanIsOpenLeavesTheLoanCopyOut() {
+        LoanResponse loan = loanService.borrow(email(0), bookId);
+
+        // An admin edits the book and sends every copy as available, one
+        // more copy in total
+        Book details = bookService.getBookById(bookId);
+        Book update = new Book();
+        update.setTitle("Popular Title, 2nd edition");
+        update.setAuthor(details.getAuthor());
+        update.setIsbn(details.getIsbn());
+        update.setPublicationYear(details.getPublicationYear());
+        update.setGenre(details.getGenre());
+        update.setTotalCopies(COPIES + 1);
+        update.setAvailableCopies(COPIES + 1);
+        bookService.updateBook(bookId, update);
+
+        assertThat(availableCopies()).isEqualTo(COPIES);
+        loanService.returnLoan(loan.id(), email(0), false);
+        assertThat(availableCopies()).isEqualTo(COPIES + 1);
+        assertThat(openLoans()).isZero();
+
+        loanService.borrow(email(0), bookId);
+        update.setTotalCopies(0);
+        assertThatThrownBy(() -> bookService.updateBook(bookId, update))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("copies on loan");
+    }
+
+    /**
+     * Starts every call at the same moment and waits for all of them
+     */
+    private List<Outcome> runAtOnce(List<? extends Callable<?>> calls) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Object>> futures = new ArrayList<>();
+            for (Callable<?> call : calls) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+            List<Outcome> outcomes = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                try {
+                    future.get(2, TimeUnit.MINUTES);
+                    outcomes.add(new Outcome(null));
+                } catch (ExecutionException e) {
+                    outcomes.add(new Outcome(e.getCause()));
+                } catch (TimeoutException e) {
+                    outcomes.add(new Outcome(e));
+                }
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertLedgerBalanced() {
+        assertThat(openLoans() + availableCopies()).as("open loans + available copies").isEqualTo(COPIES);
+        assertThat(openLoans()).isLessThanOrEqualTo(COPIES);
+    }
+
+    private int openLoans() {
+        return jdbcTemplate.queryForObject("select count(*) from loans where book_id = ? and returned_at is null",
+                Integer.class, bookId);
+    }
+
+    private int availableCopies() {
+        return jdbcTemplate.queryForObject("select available_copies from books where id = ?", Integer.class,
+                bookId);
+    }
+
+    private static User user(int i) {
+        return User.builder()
+                .email(email(i))
+                .firstName("First")
+                .lastName("Last")
+                .password("hash")
+                .role("ROLE_USER")
+                .build();
+    }
+
+    private static String email(int i) {
+        return "borrower" + i + "@example.com";
+    }
+
+    /**
+     * @param failure What the call threw, null if it succeeded
+     */
+    private record Outcome(Throwable failure) {
+
+        boolean failed() {
+            return failure != null;
+        }
+    }
+}
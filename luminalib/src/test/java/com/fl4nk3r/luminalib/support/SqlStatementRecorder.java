@@ -0,0 +1,88 @@
+package com.fl4nk3r.luminalib.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+/**
+ * Records the SQL statements Hibernate prepares while a MockMvc call runs, so
+ * that tests can hold endpoints to a query budget.
+ * Register it as Hibernate's statement inspector in the test's properties:
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector=
+ * com.fl4nk3r.luminalib.support.SqlStatementRecorder}.
+ * Statements are recorded from every thread while a call runs, so work the
+ * request hands off (streamed responses, token version lookups) counts
+ * towards its budget. Calls must therefore not run concurrently.
+ *
+ * @author fl4nk3r
+ * @version 1.0
+ * @since 2025-02
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+    private static volatile boolean recording;
+
+    @Override
+    public String inspect(String sql) {
+        if (recording) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Perform a request, and its async dispatch if it starts one, recording
+     * the statements sent until the response is complete
+     * @param mockMvc MockMvc to perform the request with
+     * @param request The request
+     * @return The result and the statements it sent, in order
+     * @throws Exception if the request fails
+     */
+    public static Recorded record(MockMvc mockMvc, RequestBuilder request) throws Exception {
+        STATEMENTS.clear();
+        recording = true;
+        try {
+            MvcResult result = mockMvc.perform(request).andReturn();
+            if (result.getRequest().isAsyncStarted()) {
+                result = mockMvc.perform(asyncDispatch(result)).andReturn();
+            }
+            return new Recorded(result, new ArrayList<>(STATEMENTS));
+        } finally {
+            recording = false;
+        }
+    }
+
+    /**
+     * Perform a request and assert that it sent at most {@code budget}
+     * statements; the failure message lists the statements sent
+     * @param mockMvc MockMvc to perform the request with
+     * @param budget  Maximum number of statements
+     * @param request The request
+     * @return The result of the request
+     * @throws Exception if the request fails
+     */
+    public static MvcResult assertAtMost(MockMvc mockMvc, int budget, RequestBuilder request) throws Exception {
+        Recorded recorded = record(mockMvc, request);
+        MvcResult result = recorded.result();
+        assertThat(recorded.statements())
+                .as("statements sent by %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .hasSizeLessThanOrEqualTo(budget);
+        return result;
+    }
+
+    /**
+     * @param result     Result of the request
+     * @param statements SQL of each statement sent, in order
+     */
+    public record Recorded(MvcResult result, List<String> statements) {
+    }
+}